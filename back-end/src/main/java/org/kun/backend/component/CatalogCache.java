@@ -0,0 +1,158 @@
+package org.kun.backend.component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.kun.backend.util.ProductCursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Near-cache in-process cho các response đọc nhiều của catalog public:
+ * chi tiết product, danh sách/chi tiết category và trang đầu của listing theo category.
+ * - Giới hạn số entry, TTL theo loại key (kèm jitter để các key không hết hạn cùng lúc)
+ * - Mỗi key chỉ có một lần load đang chạy: request đồng thời cho cùng key cold chờ kết quả của lần load đó
+ * - Product không tồn tại được cache ngắn (negative TTL) để slug sai không luôn chạm DB
+ * - Write path của product gọi evictProduct, chạy sau khi transaction commit
+ * Lưu ý: cache nằm trong memory của từng node.
+ */
+@Component
+@Slf4j
+public class CatalogCache {
+
+    private static final String PRODUCT = "product:";
+    private static final String CATEGORY = "category:";
+    private static final String CATEGORIES = "categories";
+    private static final String LISTING = "listing:";
+    // Listing không lọc theo category
+    private static final String ALL_CATEGORIES = "*";
+
+    private final boolean enabled;
+    private final Cache<String, Object> cache;
+
+    public CatalogCache(
+            MeterRegistry meterRegistry,
+            @Value("${catalog-cache.enabled:true}") boolean enabled,
+            @Value("${catalog-cache.max-size:10000}") long maxSize,
+            @Value("${catalog-cache.product-ttl:5m}") Duration productTtl,
+            @Value("${catalog-cache.category-ttl:30m}") Duration categoryTtl,
+            @Value("${catalog-cache.listing-ttl:1m}") Duration listingTtl,
+            @Value("${catalog-cache.negative-ttl:30s}") Duration negativeTtl,
+            @Value("${catalog-cache.jitter:0.1}") double jitter) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Object>() {
+                    @Override
+                    public long expireAfterCreate(String key, Object value, long currentTime) {
+                        Duration ttl;
+                        if (value instanceof Optional<?> optional && optional.isEmpty()) {
+                            ttl = negativeTtl;
+                        } else if (key.startsWith(PRODUCT)) {
+                            ttl = productTtl;
+                        } else if (key.startsWith(LISTING)) {
+                            ttl = listingTtl;
+                        } else {
+                            ttl = categoryTtl;
+                        }
+                        long nanos = ttl.toNanos();
+                        return nanos - (long) (nanos * jitter * ThreadLocalRandom.current().nextDouble());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Object value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Object value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        // Hit ratio, số lần load, eviction (cache.gets, cache.evictions, ...) qua /actuator/metrics
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "catalog");
+    }
+
+    /**
+     * Chi tiết product theo slug; loader trả về Optional.empty() nếu không tồn tại
+     */
+    public <T> Optional<T> getProduct(String slug, Supplier<Optional<T>> loader) {
+        return get(PRODUCT + slug, loader);
+    }
+
+    public <T> Optional<T> getCategory(String slug, Supplier<Optional<T>> loader) {
+        return get(CATEGORY + slug, loader);
+    }
+
+    public <T> List<T> getCategories(Supplier<List<T>> loader) {
+        return get(CATEGORIES, loader);
+    }
+
+    /**
+     * Trang đầu (không cursor, không filter) của listing theo category và thứ tự sort
+     */
+    public <T> T getListingFirstPage(String categorySlug, ProductCursor.Sort sort, Supplier<T> loader) {
+        return get(listingKey(categorySlug, sort), loader);
+    }
+
+    /**
+     * Xóa cache của product (slug cũ và mới) và trang đầu listing của các category liên quan,
+     * sau khi transaction hiện tại commit (nếu không có transaction thì xóa ngay)
+     */
+    public void evictProduct(Collection<String> productSlugs, Collection<String> categorySlugs) {
+        Runnable eviction = () -> {
+            productSlugs.forEach(slug -> cache.invalidate(PRODUCT + slug));
+            // Xóa theo key chính xác (category x sort): invalidate chờ lần load đang chạy của key đó xong
+            // rồi mới xóa, nên trang đọc dữ liệu cũ trước commit không ở lại cache (keySet không thấy key đang load)
+            for (ProductCursor.Sort sort : ProductCursor.Sort.values()) {
+                // Listing toàn bộ product cũng chứa product này
+                cache.invalidate(listingKey(null, sort));
+                categorySlugs.forEach(slug -> cache.invalidate(listingKey(slug, sort)));
+            }
+            log.debug("Evicted catalog cache for products {} in categories {}", productSlugs, categorySlugs);
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(String key, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        // Load chạy trên thread của request (trong context của request), caller khác cùng key chờ
+        // lần load đó thay vì query lại; load lỗi thì không có entry, lần sau load lại
+        return (T) cache.get(key, k -> loader.get());
+    }
+
+    private static String listingKey(String categorySlug, ProductCursor.Sort sort) {
+        return LISTING + (categorySlug == null ? ALL_CATEGORIES : categorySlug) + ":" + sort.name();
+    }
+}
@@ -0,0 +1,30 @@
+package org.kun.backend.component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.kun.backend.service.DashboardService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Đếm lại định kỳ để sửa sai lệch của bộ đếm dashboard
+ * (ví dụ dữ liệu sửa tay khi trigger bị tắt). Dashboard không bao giờ đếm trực tiếp.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardStatsReconcileJob {
+
+    private final DashboardService dashboardService;
+
+    @Scheduled(cron = "${dashboard.stats.reconcile-cron:0 0 3 * * ?}")
+    public void reconcile() {
+        try {
+            if (!dashboardService.reconcileUserCounts()) {
+                log.info("Dashboard counters match a full recount");
+            }
+        } catch (Exception e) {
+            log.error("Dashboard counter reconcile failed: {}", e.getMessage(), e);
+        }
+    }
+}
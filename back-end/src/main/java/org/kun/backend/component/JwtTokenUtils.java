@@ -3,6 +3,7 @@ package org.kun.backend.component;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.io.Decoders;
@@ -15,6 +16,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.security.SecureRandom;
 import java.util.*;
 import java.util.function.Function;
 
@@ -32,9 +34,19 @@ public class JwtTokenUtils {
     @Value("${jwt.secret}")
     private String secretKey;
 
+    // jwt (mặc định) hoặc opaque: chuỗi ngẫu nhiên 256 bit, hạn lưu ở cột expires_at
+    @Value("${jwt.refresh.format:jwt}")
+    private String refreshFormat;
+
+    private static final int OPAQUE_TOKEN_BYTES = 32;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
     // Cache secret key để tránh decode nhiều lần
     private SecretKey cachedSecretKey;
 
+    // Parser là immutable và thread-safe, build một lần dùng cho mọi request
+    private JwtParser cachedParser;
+
     private SecretKey getKey() {
         if (cachedSecretKey == null) {
             try {
@@ -47,6 +59,15 @@ public class JwtTokenUtils {
         return cachedSecretKey;
     }
 
+    private JwtParser getParser() {
+        if (cachedParser == null) {
+            cachedParser = Jwts.parser()
+                    .verifyWith(getKey())
+                    .build();
+        }
+        return cachedParser;
+    }
+
     public String generateAccessToken(User user) {
 
         Date now = new Date();
@@ -55,6 +76,8 @@ public class JwtTokenUtils {
         return Jwts.builder()
                 .subject(user.getUsername())
                 .claim("userId", user.getId())
+                .claim("role", user.getRole() != null ? user.getRole().getName() : null)
+                .claim("status", user.getStatus())
                 .issuedAt(now)
                 .expiration(exp)
                 .signWith(getKey())
@@ -62,9 +85,17 @@ public class JwtTokenUtils {
     }
 
     public String generateRefreshToken(User user) {
+        // Opaque mode: DB là nguồn xác thực duy nhất, không cần ký/parse JWT
+        if ("opaque".equalsIgnoreCase(refreshFormat)) {
+            byte[] bytes = new byte[OPAQUE_TOKEN_BYTES];
+            SECURE_RANDOM.nextBytes(bytes);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        }
 
         Date now = new Date();
         return Jwts.builder()
+                // jti ngẫu nhiên để hai token phát hành cùng giây không trùng digest
+                .id(UUID.randomUUID().toString())
                 .subject(user.getUsername())
                 .issuedAt(now)
                 .expiration(new Date(now.getTime() + refreshExpMs))
@@ -74,9 +105,7 @@ public class JwtTokenUtils {
 
     private Claims extractAll(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getKey())
-                    .build()
+            return getParser()
                     .parseSignedClaims(token)
                     .getPayload();
         } catch (ExpiredJwtException e) {
@@ -97,6 +126,22 @@ public class JwtTokenUtils {
         }
     }
 
+    /**
+     * Parse và verify chữ ký đúng một lần.
+     * Ném ExpiredJwtException nếu token hết hạn, JwtException nếu token không hợp lệ.
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = extractAll(token);
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.get("userId", Long.class),
+                claims.getIssuedAt(),
+                claims.getExpiration(),
+                claims.get("role", String.class),
+                claims.get("status", String.class)
+        );
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> fn) {
         try {
             return fn.apply(extractAll(token));
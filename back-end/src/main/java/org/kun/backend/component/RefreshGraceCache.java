@@ -0,0 +1,65 @@
+package org.kun.backend.component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.kun.backend.dto.response.AuthResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Giữ cặp token vừa được cấp khi rotate một refresh token, trong một khoảng grace ngắn.
+ * Khi trình duyệt gửi nhiều request /api/auth/refresh song song với cùng cookie,
+ * các request thua cuộc nhận lại đúng cặp token của request thắng thay vì bị coi là reuse.
+ * Chỉ lưu trong memory của node, key là digest của refresh token cũ.
+ */
+@Component
+public class RefreshGraceCache {
+
+    private final Duration gracePeriod;
+    private final Cache<String, AuthResponse> issued;
+
+    public RefreshGraceCache(@Value("${jwt.refresh.rotation.grace-period:10s}") Duration gracePeriod) {
+        this.gracePeriod = gracePeriod;
+        this.issued = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(gracePeriod)
+                .build();
+    }
+
+    /**
+     * Ghi nhận cặp token cấp cho refresh token cũ. Gọi trong transaction rotate;
+     * nếu transaction rollback thì entry bị xóa vì token mới không được lưu.
+     */
+    public void put(byte[] rotatedTokenHash, AuthResponse response) {
+        String key = key(rotatedTokenHash);
+        issued.put(key, response);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        issued.invalidate(key);
+                    }
+                }
+            });
+        }
+    }
+
+    public AuthResponse get(byte[] rotatedTokenHash) {
+        return issued.getIfPresent(key(rotatedTokenHash));
+    }
+
+    public Duration getGracePeriod() {
+        return gracePeriod;
+    }
+
+    private static String key(byte[] tokenHash) {
+        return Base64.getEncoder().withoutPadding().encodeToString(tokenHash);
+    }
+}
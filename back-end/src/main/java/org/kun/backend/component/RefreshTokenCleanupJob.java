@@ -0,0 +1,67 @@
+package org.kun.backend.component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.kun.backend.repository.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dọn partition refresh_tokens_default theo jwt.refresh.cleanup.cron.
+ * Retention của các partition theo tuần do RefreshTokenPartitionManager drop nguyên partition;
+ * job này chỉ xóa theo batch các row hết hạn rơi vào partition default (không load entity),
+ * mỗi batch là một transaction ngắn để không giữ lock lâu.
+ */
+@Component
+@Slf4j
+public class RefreshTokenCleanupJob {
+
+    private final RefreshTokenRepository refreshRepo;
+    private final Counter purgedCounter;
+    private final Timer purgeTimer;
+
+    @Value("${jwt.expiration.refresh}")
+    private long refreshExpMs;
+
+    @Value("${jwt.refresh.cleanup.batch-size:1000}")
+    private int batchSize;
+
+    public RefreshTokenCleanupJob(RefreshTokenRepository refreshRepo, MeterRegistry meterRegistry) {
+        this.refreshRepo = refreshRepo;
+        this.purgedCounter = Counter.builder("refresh_tokens.purged")
+                .description("Refresh token rows deleted by the cleanup job")
+                .register(meterRegistry);
+        this.purgeTimer = Timer.builder("refresh_tokens.purge.duration")
+                .description("Time taken by one cleanup run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${jwt.refresh.cleanup.cron}")
+    public void purge() {
+        long start = System.nanoTime();
+        Date now = new Date();
+        Date createdBefore = new Date(now.getTime() - refreshExpMs);
+
+        long total = 0;
+        try {
+            int deleted;
+            do {
+                deleted = refreshRepo.deleteExpiredBatch(now, createdBefore, batchSize);
+                total += deleted;
+            } while (deleted == batchSize);
+        } catch (Exception e) {
+            log.error("Refresh token cleanup failed after purging {} rows: {}", total, e.getMessage(), e);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            purgedCounter.increment(total);
+            purgeTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("Refresh token cleanup purged {} rows in {} ms", total, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.kun.backend.component;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+/**
+ * Quản lý partition theo tuần của bảng refresh_tokens (xem db/migration/V2).
+ * Tạo trước partition cho các tuần sắp tới và drop nguyên partition đã cũ hơn jwt.expiration.refresh,
+ * thay vì DELETE hàng triệu row (gây bloat và áp lực vacuum).
+ * Advisory lock đảm bảo chỉ một node chạy DDL tại một thời điểm.
+ */
+@Component
+@Slf4j
+public class RefreshTokenPartitionManager {
+
+    private static final String PARTITION_PREFIX = "refresh_tokens_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final long ADVISORY_LOCK_KEY = 0x7265667265736831L; // "refresh1"
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${jwt.expiration.refresh}")
+    private long refreshExpMs;
+
+    @Value("${jwt.refresh.partition.weeks-ahead:4}")
+    private int weeksAhead;
+
+    public RefreshTokenPartitionManager(JdbcTemplate jdbc, PlatformTransactionManager transactionManager) {
+        this.jdbc = jdbc;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${jwt.refresh.partition.cron:0 30 1 * * ?}")
+    public void scheduledMaintain() {
+        maintain();
+    }
+
+    private void maintain() {
+        try {
+            // Advisory lock dạng xact chỉ giữ trong transaction
+            transactionTemplate.executeWithoutResult(status -> maintainPartitions());
+        } catch (Exception e) {
+            log.error("Refresh token partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void maintainPartitions() {
+        Boolean locked = jdbc.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ADVISORY_LOCK_KEY);
+        if (!Boolean.TRUE.equals(locked)) {
+            log.debug("Partition maintenance is running on another node, skipping");
+            return;
+        }
+
+        // Tạo partition cho tuần hiện tại và các tuần sắp tới
+        LocalDate currentWeek = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        for (int i = 0; i <= weeksAhead; i++) {
+            LocalDate weekStart = currentWeek.plusWeeks(i);
+            jdbc.execute(String.format(
+                    "CREATE TABLE IF NOT EXISTS %s PARTITION OF refresh_tokens FOR VALUES FROM ('%s') TO ('%s')",
+                    partitionName(weekStart), weekStart, weekStart.plusWeeks(1)));
+        }
+
+        // Drop partition mà mọi token bên trong đã hết hạn
+        LocalDateTime retentionStart = LocalDateTime.now().minusNanos(refreshExpMs * 1_000_000L);
+        int dropped = 0;
+        for (String partition : listPartitions()) {
+            LocalDate weekStart = parseWeekStart(partition);
+            if (weekStart != null && !weekStart.plusWeeks(1).atStartOfDay().isAfter(retentionStart)) {
+                jdbc.execute("DROP TABLE IF EXISTS " + partition);
+                dropped++;
+                log.info("Dropped expired refresh token partition: {}", partition);
+            }
+        }
+        log.debug("Refresh token partitions maintained ({} weeks ahead, {} dropped)", weeksAhead, dropped);
+    }
+
+    private List<String> listPartitions() {
+        return jdbc.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = 'refresh_tokens'
+                """, String.class);
+    }
+
+    private static String partitionName(LocalDate weekStart) {
+        return PARTITION_PREFIX + weekStart.format(PARTITION_SUFFIX);
+    }
+
+    // refresh_tokens_default và tên không đúng định dạng trả về null (không bao giờ bị drop)
+    private static LocalDate parseWeekStart(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.kun.backend.component;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ghi nhận thời điểm access token của một user bị thu hồi (revoke-all, đổi status, đổi role).
+ * Ở stateless mode filter không đọc DB, nên mọi access token phát hành trước thời điểm này bị từ chối.
+ * Revoke được ghi vào bảng access_token_revocations (chung cho mọi node, cùng transaction với thao tác gây revoke)
+ * và vào map local; mỗi node poll bảng theo jwt.revocation.poll-interval để nhận revoke từ node khác.
+ * Filter chỉ đọc map local. Entry chỉ cần giữ trong khoảng thời gian sống của access token.
+ */
+@Component
+@Slf4j
+public class TokenRevocationRegistry {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO access_token_revocations (user_id, revoked_before) VALUES (?, ?)
+            ON CONFLICT (user_id) DO UPDATE
+            SET revoked_before = GREATEST(access_token_revocations.revoked_before, EXCLUDED.revoked_before)
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final Map<Long, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    @Value("${jwt.expiration.access}")
+    private long accessExpMs;
+
+    public TokenRevocationRegistry(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Thu hồi tất cả access token đã phát hành cho user tính đến thời điểm hiện tại
+     */
+    public void revokeUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        jdbc.update(UPSERT_SQL, userId, new Timestamp(now));
+        revokedBefore.merge(userId, now, Math::max);
+        log.info("Access tokens revoked for userId: {}", userId);
+    }
+
+    /**
+     * Thu hồi access token của nhiều user cùng lúc (bulk đổi status), một JDBC batch
+     */
+    public void revokeUsers(Collection<Long> userIds) {
+        long now = System.currentTimeMillis();
+        Timestamp revokedAt = new Timestamp(now);
+        List<Object[]> rows = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            if (userId != null) {
+                rows.add(new Object[]{userId, revokedAt});
+            }
+        }
+        jdbc.batchUpdate(UPSERT_SQL, rows);
+        for (Object[] row : rows) {
+            revokedBefore.merge((Long) row[0], now, Math::max);
+        }
+        log.info("Access tokens revoked for {} users", rows.size());
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        if (token.getUserId() == null) {
+            return false;
+        }
+        Long revokedAt = revokedBefore.get(token.getUserId());
+        if (revokedAt == null) {
+            return false;
+        }
+        if (token.getIssuedAt() == null) {
+            return true;
+        }
+        // iat chỉ có độ chính xác đến giây: so với thời điểm revoke làm tròn xuống giây,
+        // để token mới phát hành ngay sau revoke (login lại trong cùng giây) không bị từ chối
+        return token.getIssuedAt().getTime() < revokedAt / 1000 * 1000;
+    }
+
+    /**
+     * Đồng bộ revoke từ các node khác (và sau khi khởi động lại).
+     * Chỉ đọc các revoke còn hiệu lực (trong thời gian sống của access token), số dòng nhỏ và có index.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.poll-interval:5000}")
+    public void pollShared() {
+        try {
+            Timestamp since = new Timestamp(System.currentTimeMillis() - accessExpMs);
+            jdbc.query("SELECT user_id, revoked_before FROM access_token_revocations WHERE revoked_before > ?",
+                    (RowCallbackHandler) rs -> revokedBefore.merge(
+                            rs.getLong("user_id"), rs.getTimestamp("revoked_before").getTime(), Math::max),
+                    since);
+        } catch (Exception e) {
+            log.warn("Failed to poll shared access token revocations: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Xóa các entry cũ hơn thời gian sống của access token (local và trong bảng)
+     */
+    @Scheduled(fixedDelayString = "${jwt.expiration.access}")
+    public void purgeExpired() {
+        long threshold = System.currentTimeMillis() - accessExpMs;
+        revokedBefore.values().removeIf(revokedAt -> revokedAt < threshold);
+        try {
+            int deleted = jdbc.update("DELETE FROM access_token_revocations WHERE revoked_before < ?", new Timestamp(threshold));
+            log.debug("Purged {} expired access token revocations", deleted);
+        } catch (Exception e) {
+            log.warn("Failed to purge access token revocations: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.kun.backend.component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Cache in-process cho UserDetails, key theo cả username và email
+ * (vì findByUsernameOrEmail nhận một trong hai).
+ * Mọi thay đổi status/role/revoke của user phải gọi evict (thực hiện sau khi transaction commit).
+ */
+@Component
+@Slf4j
+public class UserDetailsCache {
+
+    private final boolean enabled;
+    private final Cache<String, CachedUser> cache;
+
+    public UserDetailsCache(
+            MeterRegistry meterRegistry,
+            @Value("${user-cache.enabled:true}") boolean enabled,
+            @Value("${user-cache.max-size:10000}") long maxSize,
+            @Value("${user-cache.ttl:5m}") Duration ttl) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // Hit ratio, load latency (cache.gets, cache.load.duration, ...) qua /actuator/metrics
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
+    }
+
+    /**
+     * Lấy UserDetails theo username hoặc email, load từ DB qua loader nếu chưa có trong cache.
+     * Trả về bản copy vì Spring Security xóa password của principal sau khi authenticate.
+     */
+    public UserDetails get(String identifier, Function<String, CachedUser> loader) {
+        if (!enabled) {
+            return loader.apply(identifier).getDetails();
+        }
+
+        CachedUser cached = cache.get(identifier, loader);
+
+        // Đăng ký thêm key còn lại (username <-> email) để lần sau tra theo key kia vẫn hit
+        if (cached.getUsername() != null && !cached.getUsername().equals(identifier)) {
+            cache.asMap().putIfAbsent(cached.getUsername(), cached);
+        }
+        if (cached.getEmail() != null && !cached.getEmail().equals(identifier)) {
+            cache.asMap().putIfAbsent(cached.getEmail(), cached);
+        }
+
+        return User.withUserDetails(cached.getDetails()).build();
+    }
+
+    /**
+     * Xóa entry của user (theo cả username và email)
+     */
+    public void evict(org.kun.backend.model.User user) {
+        if (user == null) {
+            return;
+        }
+        String username = user.getUsername();
+        String email = user.getEmail();
+        afterCommit(() -> {
+            cache.invalidate(username);
+            cache.invalidate(email);
+            log.debug("Evicted cached user details for: {}", username);
+        });
+    }
+
+    /**
+     * Xóa entry của nhiều user theo id (bulk đổi status), một lần duyệt cache
+     */
+    public void evictUserIds(Collection<Long> userIds) {
+        Set<Long> ids = new HashSet<>(userIds);
+        afterCommit(() -> {
+            cache.asMap().values().removeIf(cached -> ids.contains(cached.getUserId()));
+            log.debug("Evicted cached user details for {} user ids", ids.size());
+        });
+    }
+
+    /**
+     * Evict sau khi transaction ghi commit: nếu evict trước commit, request đọc song song có thể
+     * load lại row cũ vào cache (kể cả alias username/email qua putIfAbsent) và giữ đến hết TTL.
+     * Không có transaction thì evict ngay.
+     */
+    private static void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Snapshot của UserDetails kèm các key để evict
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class CachedUser {
+        private final Long userId;
+        private final String username;
+        private final String email;
+        private final UserDetails details;
+    }
+}
@@ -0,0 +1,26 @@
+package org.kun.backend.component;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * Kết quả của một lần parse + verify chữ ký JWT.
+ * Filter dùng object này thay vì gọi lại JwtTokenUtils nhiều lần cho cùng một token.
+ */
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+    private final String subject;
+    private final Long userId;
+    private final Date issuedAt;
+    private final Date expiresAt;
+    // Role và status tại thời điểm phát hành token (dùng cho stateless mode)
+    private final String role;
+    private final String status;
+
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.before(new Date());
+    }
+}
@@ -0,0 +1,91 @@
+package org.kun.backend.component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.kun.backend.util.TokenDigest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache các access token đã verify chữ ký để tránh chạy lại HMAC cho mỗi request.
+ * Key là SHA-256 của token (không giữ token gốc trong memory), entry tự hết hạn đúng lúc token hết hạn.
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private final JwtTokenUtils jwt;
+    private final boolean enabled;
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(
+            JwtTokenUtils jwt,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.verified-cache.enabled:true}") boolean enabled,
+            @Value("${jwt.verified-cache.max-size:100000}") long maxSize) {
+        this.jwt = jwt;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        // Hit ratio, eviction (cache.gets, cache.evictions, ...) qua /actuator/metrics
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "verifiedTokens");
+    }
+
+    /**
+     * Trả về token đã verify từ cache, hoặc verify và lưu vào cache nếu chưa có.
+     * Ném ExpiredJwtException / JwtException giống JwtTokenUtils.verify.
+     */
+    public VerifiedToken verify(String token) {
+        if (!enabled) {
+            return jwt.verify(token);
+        }
+
+        String key = digest(token);
+        VerifiedToken cached = cache.getIfPresent(key);
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+
+        VerifiedToken verified = jwt.verify(token);
+        cache.put(key, verified);
+        return verified;
+    }
+
+    private static String digest(String token) {
+        return Base64.getEncoder().withoutPadding().encodeToString(TokenDigest.sha256(token));
+    }
+
+    /**
+     * Entry sống đến đúng thời điểm exp của token
+     */
+    private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            if (value.getExpiresAt() == null) {
+                return 0;
+            }
+            long remainingMs = value.getExpiresAt().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
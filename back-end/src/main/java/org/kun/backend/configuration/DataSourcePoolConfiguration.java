@@ -0,0 +1,60 @@
+package org.kun.backend.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Kích thước pool Hikari (maximum-pool-size = minimum-idle, pool cố định).
+ * db-pool.size > 0 thì dùng nguyên giá trị đó; 0 thì tính từ số thread đã cấu hình:
+ * <pre>
+ *   pool = max(hashing threads, min(tomcat max threads, cores * 2 + 1))
+ * </pre>
+ * - cores * 2 + 1: request chỉ giữ connection trong vài query ngắn (BCrypt chạy ngoài transaction)
+ * - không vượt số request thread của Tomcat: connection thừa không bao giờ được dùng
+ * - không ít hơn số thread hash: request vừa hash xong không phải chờ connection
+ */
+@Configuration
+@Slf4j
+public class DataSourcePoolConfiguration {
+
+    @Bean
+    static BeanPostProcessor hikariPoolSizer(Environment env) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    int size = resolvePoolSize(env);
+                    dataSource.setMaximumPoolSize(size);
+                    dataSource.setMinimumIdle(size);
+                    log.info("Hikari pool {} sized to {} connections", dataSource.getPoolName(), size);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static int resolvePoolSize(Environment env) {
+        int configured = env.getProperty("db-pool.size", Integer.class, 0);
+        if (configured > 0) {
+            return configured;
+        }
+        int cores = env.getProperty("db-pool.cpu-cores", Integer.class, 0);
+        if (cores <= 0) {
+            cores = Runtime.getRuntime().availableProcessors();
+        }
+        int hashingThreads = env.getProperty("password-hashing.pool-size", Integer.class, 0);
+        if (hashingThreads <= 0) {
+            hashingThreads = cores;
+        }
+        int tomcatThreads = env.getProperty("server.tomcat.threads.max", Integer.class, 200);
+        return derivePoolSize(cores, tomcatThreads, hashingThreads);
+    }
+
+    static int derivePoolSize(int cores, int tomcatThreads, int hashingThreads) {
+        return Math.max(hashingThreads, Math.min(tomcatThreads, cores * 2 + 1));
+    }
+}
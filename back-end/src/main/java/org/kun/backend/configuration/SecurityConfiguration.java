@@ -1,8 +1,13 @@
 package org.kun.backend.configuration;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.kun.backend.filter.AuthRateLimitFilter;
 import org.kun.backend.filter.JwtAuthenticationFilter;
+import org.kun.backend.security.BoundedPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -16,15 +21,19 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -38,7 +47,24 @@ import java.util.List;
 public class SecurityConfiguration {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final AuthRateLimitFilter authRateLimitFilter;
     private final UserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${password-hashing.pool-size:0}")
+    private int hashingPoolSize;
+
+    @Value("${password-hashing.queue-capacity:0}")
+    private int hashingQueueCapacity;
+
+    @Value("${password-hashing.timeout:5s}")
+    private Duration hashingTimeout;
+
+    @Value("${password-hashing.algorithm:bcrypt}")
+    private String hashingAlgorithm;
+
+    @Value("${password-hashing.bcrypt.strength:10}")
+    private int bcryptStrength;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -61,7 +87,10 @@ public class SecurityConfiguration {
                         .requestMatchers("/api/public/**").permitAll()
                         
                         // Health check
-                        .requestMatchers("/health", "/actuator/**").permitAll()
+                        .requestMatchers("/health", "/actuator/health", "/actuator/health/**").permitAll()
+
+                        // Actuator còn lại (metrics: cache, auth counters, pool...) - chỉ ADMIN
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         
                         // User endpoints - require ROLE_USER or ROLE_ADMIN
                         .requestMatchers("/api/user/**").hasAnyRole("USER", "ADMIN")
@@ -74,6 +103,8 @@ public class SecurityConfiguration {
                 )
                 .authenticationProvider(authenticationProvider())
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                // Rate limit cho /api/auth/** chạy trước JWT filter, từ chối sớm không chạm DB
+                .addFilterBefore(authRateLimitFilter, JwtAuthenticationFilter.class)
                 .exceptionHandling(exceptions -> 
                     exceptions
                         .accessDeniedHandler((request, response, ex) -> {
@@ -105,7 +136,35 @@ public class SecurityConfiguration {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        // Hash trên pool riêng, mặc định số thread = số core, hàng đợi = 4 lần số thread
+        int poolSize = hashingPoolSize > 0 ? hashingPoolSize : Runtime.getRuntime().availableProcessors();
+        int queueCapacity = hashingQueueCapacity > 0 ? hashingQueueCapacity : poolSize * 4;
+
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(
+                delegatingPasswordEncoder(), poolSize, queueCapacity, hashingTimeout);
+        new ExecutorServiceMetrics(encoder.getExecutor(), "passwordHashing", List.of())
+                .bindTo(meterRegistry);
+        return encoder;
+    }
+
+    /**
+     * Hash mới được encode bằng password-hashing.algorithm (có prefix {id}).
+     * Hash cũ không có prefix được coi là BCrypt; hash dùng thuật toán/cost cũ sẽ được
+     * AuthService.login encode lại sau khi đăng nhập thành công (upgradeEncoding).
+     */
+    private PasswordEncoder delegatingPasswordEncoder() {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = Map.of(
+                "bcrypt", bcrypt,
+                "pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8()
+        );
+        if (!encoders.containsKey(hashingAlgorithm)) {
+            throw new IllegalStateException("Unsupported password-hashing.algorithm: " + hashingAlgorithm);
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(hashingAlgorithm, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
     }
 
     @Bean
@@ -1,11 +1,23 @@
 package org.kun.backend.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.kun.backend.dto.request.AdminUserFilter;
+import org.kun.backend.dto.request.BulkStatusUpdateRequest;
+import org.kun.backend.dto.response.AdminUserResponse;
 import org.kun.backend.dto.response.ApiResponse;
+import org.kun.backend.dto.response.BulkImportResult;
+import org.kun.backend.dto.response.BulkStatusUpdateResult;
+import org.kun.backend.dto.response.CursorPage;
+import org.kun.backend.dto.response.DashboardStatsResponse;
+import org.kun.backend.service.AdminUserService;
+import org.kun.backend.service.DashboardService;
+import org.kun.backend.service.UserImportService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -15,33 +27,66 @@ import java.util.Map;
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminController {
 
+    private final DashboardService dashboardService;
+    private final AdminUserService adminUserService;
+    private final UserImportService userImportService;
+
     /**
      * Get dashboard statistics - Admin only
      */
     @GetMapping("/dashboard")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getDashboard() {
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("totalUsers", 150);
-        stats.put("totalOrders", 1250);
-        stats.put("totalRevenue", 500000);
-        stats.put("activeUsers", 45);
-        
+    public ResponseEntity<ApiResponse<DashboardStatsResponse>> getDashboard() {
         return ResponseEntity.ok(
-            ApiResponse.success("Dashboard statistics retrieved", stats)
+            ApiResponse.success("Dashboard statistics retrieved", dashboardService.getStats())
         );
     }
 
     /**
-     * Get all users - Admin only
+     * Get users (keyset pagination theo id) - Admin only
+     * Trang tiếp theo: gửi lại nextCursor qua tham số cursor
      */
     @GetMapping("/users")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getAllUsers() {
-        Map<String, Object> data = new HashMap<>();
-        data.put("users", new Object[]{});
-        data.put("total", 0);
-        
+    public ResponseEntity<ApiResponse<CursorPage<AdminUserResponse>>> getAllUsers(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String emailPrefix,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        AdminUserFilter filter = AdminUserFilter.builder()
+                .status(status)
+                .role(role)
+                .emailPrefix(emailPrefix)
+                .build();
+
+        return ResponseEntity.ok(
+            ApiResponse.success("Users list retrieved", adminUserService.listUsers(filter, cursor, size))
+        );
+    }
+
+    /**
+     * Import user hàng loạt - Admin only
+     * Body: NDJSON (mỗi dòng một object) hoặc CSV có header username,email,password,...
+     * Trả về số dòng thành công/lỗi và lỗi theo số dòng
+     */
+    @PostMapping(value = "/users/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ApiResponse<BulkImportResult>> importUsers(HttpServletRequest request) throws IOException {
+        String format = request.getContentType() != null && request.getContentType().startsWith("text/csv")
+                ? UserImportService.FORMAT_CSV
+                : UserImportService.FORMAT_NDJSON;
+
+        return ResponseEntity.ok(
+            ApiResponse.success("Users imported", userImportService.importUsers(request.getInputStream(), format))
+        );
+    }
+
+    /**
+     * Đổi status nhiều user (ví dụ LOCKED) - Admin only
+     */
+    @PatchMapping("/users/status")
+    public ResponseEntity<ApiResponse<BulkStatusUpdateResult>> updateUsersStatus(
+            @RequestBody BulkStatusUpdateRequest request) {
         return ResponseEntity.ok(
-            ApiResponse.success("Users list retrieved", data)
+            ApiResponse.success("User status updated", adminUserService.updateStatus(request))
         );
     }
 
@@ -0,0 +1,59 @@
+package org.kun.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.kun.backend.dto.request.ProductRequest;
+import org.kun.backend.dto.response.ApiResponse;
+import org.kun.backend.dto.response.ProductDetailResponse;
+import org.kun.backend.service.ProductService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/products")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminProductController {
+
+    private final ProductService productService;
+
+    /**
+     * Create product (PRODUCT_CREATE) - Admin only
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<ProductDetailResponse>> createProduct(@RequestBody ProductRequest request) {
+        return ResponseEntity.ok(
+            ApiResponse.success("Product created successfully", productService.createProduct(request))
+        );
+    }
+
+    /**
+     * Update product (PRODUCT_UPDATE) - Admin only
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<ApiResponse<ProductDetailResponse>> updateProduct(
+            @PathVariable Long id,
+            @RequestBody ProductRequest request) {
+        return ResponseEntity.ok(
+            ApiResponse.success("Product updated successfully", productService.updateProduct(id, request))
+        );
+    }
+
+    /**
+     * Delete product (PRODUCT_DELETE) - Admin only
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<Map<String, String>>> deleteProduct(@PathVariable Long id) {
+        productService.deleteProduct(id);
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Product deleted successfully");
+        response.put("productId", id.toString());
+
+        return ResponseEntity.ok(
+            ApiResponse.success("Product deleted", response)
+        );
+    }
+}
@@ -0,0 +1,82 @@
+package org.kun.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.kun.backend.dto.request.ProductFilter;
+import org.kun.backend.dto.response.ApiResponse;
+import org.kun.backend.dto.response.CategoryResponse;
+import org.kun.backend.dto.response.CursorPage;
+import org.kun.backend.dto.response.ProductDetailResponse;
+import org.kun.backend.dto.response.ProductSummaryResponse;
+import org.kun.backend.service.ProductService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/public")
+@RequiredArgsConstructor
+public class PublicCatalogController {
+
+    private final ProductService productService;
+
+    /**
+     * Listing product (keyset pagination) - Public
+     * sort: newest | price_asc | price_desc; trang tiếp theo: gửi lại nextCursor qua tham số cursor
+     * size: số product mỗi trang (giống listing admin); lọc theo size của variant: variantSize
+     */
+    @GetMapping("/products")
+    public ResponseEntity<ApiResponse<CursorPage<ProductSummaryResponse>>> getProducts(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String variantSize,
+            @RequestParam(required = false) String color,
+            @RequestParam(defaultValue = "false") boolean inStock,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        ProductFilter filter = ProductFilter.builder()
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .size(variantSize)
+                .color(color)
+                .inStock(inStock)
+                .build();
+
+        return ResponseEntity.ok(
+            ApiResponse.success("Products retrieved", productService.listProducts(category, filter, sort, cursor, size))
+        );
+    }
+
+    /**
+     * Chi tiết product kèm variants - Public
+     */
+    @GetMapping("/products/{slug}")
+    public ResponseEntity<ApiResponse<ProductDetailResponse>> getProduct(@PathVariable String slug) {
+        return ResponseEntity.ok(
+            ApiResponse.success("Product retrieved", productService.getProduct(slug))
+        );
+    }
+
+    /**
+     * Danh sách category - Public
+     */
+    @GetMapping("/categories")
+    public ResponseEntity<ApiResponse<List<CategoryResponse>>> getCategories() {
+        return ResponseEntity.ok(
+            ApiResponse.success("Categories retrieved", productService.listCategories())
+        );
+    }
+
+    /**
+     * Category theo slug - Public
+     */
+    @GetMapping("/categories/{slug}")
+    public ResponseEntity<ApiResponse<CategoryResponse>> getCategory(@PathVariable String slug) {
+        return ResponseEntity.ok(
+            ApiResponse.success("Category retrieved", productService.getCategory(slug))
+        );
+    }
+}
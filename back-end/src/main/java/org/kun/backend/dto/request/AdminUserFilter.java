@@ -0,0 +1,21 @@
+package org.kun.backend.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bộ lọc danh sách user cho admin, mọi field đều tùy chọn
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminUserFilter {
+    private String status;
+    private String role;
+    // Đã resolve từ tên role
+    private Long roleId;
+    private String emailPrefix;
+}
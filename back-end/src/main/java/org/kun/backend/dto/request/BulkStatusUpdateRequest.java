@@ -0,0 +1,20 @@
+package org.kun.backend.dto.request;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateRequest {
+    @NotEmpty(message = "userIds is required")
+    private List<Long> userIds;
+
+    @NotBlank(message = "Status is required")
+    private String status;
+}
@@ -0,0 +1,26 @@
+package org.kun.backend.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Một dòng trong file import user (NDJSON hoặc CSV có header cùng tên cột)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserRow {
+    private String username;
+    private String email;
+    private String password;
+    private String fullName;
+    private String phone;
+    private String address;
+    // Mặc định USER
+    private String role;
+    // Mặc định ACTIVE
+    private String status;
+}
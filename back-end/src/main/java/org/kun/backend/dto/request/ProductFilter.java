@@ -0,0 +1,25 @@
+package org.kun.backend.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Bộ lọc listing product public, mọi field đều tùy chọn
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFilter {
+    // Đã resolve từ slug của category
+    private Long categoryId;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private String size;
+    private String color;
+    private boolean inStock;
+}
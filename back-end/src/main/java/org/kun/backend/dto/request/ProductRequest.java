@@ -0,0 +1,49 @@
+package org.kun.backend.dto.request;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductRequest {
+    @NotNull(message = "Category is required")
+    private Long categoryId;
+
+    @NotBlank(message = "Name is required")
+    private String name;
+
+    @NotBlank(message = "Slug is required")
+    private String slug;
+
+    private String description;
+
+    @NotNull(message = "Price is required")
+    private BigDecimal price;
+
+    private String imageUrl;
+
+    // Mặc định ACTIVE
+    private String status;
+
+    // Khi update: null = giữ nguyên variants, khác null = thay toàn bộ
+    private List<VariantRequest> variants;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class VariantRequest {
+        @NotBlank(message = "SKU is required")
+        private String sku;
+        private String size;
+        private String color;
+        private BigDecimal price;
+        private Integer stock;
+    }
+}
@@ -0,0 +1,26 @@
+package org.kun.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection của user cho trang quản trị (không load entity User/Role)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminUserResponse {
+    private Long id;
+    private String username;
+    private String email;
+    private String fullName;
+    private String phone;
+    private String status;
+    private String role;
+    private LocalDateTime createdAt;
+}
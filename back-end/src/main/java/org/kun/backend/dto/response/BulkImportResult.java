@@ -0,0 +1,36 @@
+package org.kun.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kết quả import: số dòng đã xử lý, thành công, lỗi và chi tiết lỗi theo số dòng
+ * (giới hạn số lỗi trả về để response không phình theo kích thước file)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportResult {
+    private long processed;
+    private long imported;
+    private long failed;
+    @Builder.Default
+    private List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+    private long durationMs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String username;
+        private String message;
+    }
+}
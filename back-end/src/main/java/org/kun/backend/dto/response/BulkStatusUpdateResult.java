@@ -0,0 +1,16 @@
+package org.kun.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateResult {
+    private int requested;
+    private int updated;
+    private int revokedRefreshTokens;
+}
@@ -0,0 +1,22 @@
+package org.kun.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Trang kết quả phân trang keyset: client gửi lại nextCursor để lấy trang tiếp theo.
+ * Không có tổng số bản ghi (tránh COUNT(*) mỗi request).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,21 @@
+package org.kun.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardStatsResponse {
+    private long totalUsers;
+    private long totalOrders;
+    private BigDecimal totalRevenue;
+    private long activeUsers;
+    private Date updatedAt;
+}
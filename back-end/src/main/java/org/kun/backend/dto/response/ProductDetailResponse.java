@@ -0,0 +1,31 @@
+package org.kun.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductDetailResponse {
+    private Long id;
+    private String name;
+    private String slug;
+    private String description;
+    private BigDecimal price;
+    private String imageUrl;
+    private String categorySlug;
+    private String categoryName;
+    private List<VariantResponse> variants;
+
+    // Dùng cho constructor projection (variants được load bằng query riêng)
+    public ProductDetailResponse(Long id, String name, String slug, String description, BigDecimal price,
+                                 String imageUrl, String categorySlug, String categoryName) {
+        this(id, name, slug, description, price, imageUrl, categorySlug, categoryName, null);
+    }
+}
@@ -0,0 +1,25 @@
+package org.kun.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection của product cho trang listing (không load entity)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSummaryResponse {
+    private Long id;
+    private String name;
+    private String slug;
+    private BigDecimal price;
+    private String imageUrl;
+    private String categorySlug;
+    private String categoryName;
+}
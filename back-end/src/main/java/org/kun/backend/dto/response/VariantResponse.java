@@ -0,0 +1,21 @@
+package org.kun.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VariantResponse {
+    private Long id;
+    private String sku;
+    private String size;
+    private String color;
+    private BigDecimal price;
+    private Integer stock;
+}
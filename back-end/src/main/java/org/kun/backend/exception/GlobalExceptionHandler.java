@@ -109,6 +109,16 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(HttpStatus.FORBIDDEN, "Access denied", req.getRequestURI()));
     }
 
+    // 503 - Service Unavailable (quá tải, ví dụ hàng đợi hash password đầy)
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiResponse<Object>> handleServiceUnavailable(ServiceUnavailableException ex, HttpServletRequest req) {
+        log.warn("Service unavailable: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(ApiResponse.error(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), req.getRequestURI()));
+    }
+
     // 500 - Internal Server Error
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<Object>> handleGeneral(Exception ex, HttpServletRequest req) {
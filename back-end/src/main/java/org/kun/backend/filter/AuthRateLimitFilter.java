@@ -0,0 +1,155 @@
+package org.kun.backend.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.kun.backend.dto.response.ApiResponse;
+import org.kun.backend.util.TokenBucketRateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Giới hạn tốc độ gọi /api/auth/login, /register, /refresh theo IP và theo subnet (/24 với IPv4, /64 với IPv6).
+ * Chạy trước JwtAuthenticationFilter; request bị từ chối không chạm DB và không hash password.
+ * Sau load balancer, IP client được lấy từ X-Forwarded-For của proxy tin cậy (xem server.tomcat.remoteip).
+ */
+@Component
+@Slf4j
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    // IPv4 literal: đúng 4 octet thập phân 0-255 (chuỗi như "cafe.face" là hostname, không phải IP)
+    private static final Pattern IPV4_LITERAL = Pattern.compile(
+            "((25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)\\.){3}(25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)");
+    // IPv6 literal: có ':' và chỉ gồm hex, ':' và '.' (dạng ::ffff:1.2.3.4); InetAddress parse chuỗi có ':'
+    // như IPv6 và báo lỗi nếu sai, không resolve DNS
+    private static final Pattern IPV6_LITERAL = Pattern.compile("[0-9a-fA-F.]*:[0-9a-fA-F:.]*");
+
+    private static final Set<String> LIMITED_PATHS = Set.of(
+            "/api/auth/login",
+            "/api/auth/register",
+            "/api/auth/refresh"
+    );
+
+    private final boolean enabled;
+    private final TokenBucketRateLimiter ipLimiter;
+    private final TokenBucketRateLimiter subnetLimiter;
+    private final Counter ipRejected;
+    private final Counter subnetRejected;
+    private final ObjectMapper objectMapper;
+
+    public AuthRateLimitFilter(
+            MeterRegistry meterRegistry,
+            ObjectMapper objectMapper,
+            @Value("${rate-limit.auth.enabled:true}") boolean enabled,
+            @Value("${rate-limit.auth.ip.capacity:10}") long ipCapacity,
+            @Value("${rate-limit.auth.ip.refill-per-minute:30}") long ipRefillPerMinute,
+            @Value("${rate-limit.auth.subnet.capacity:100}") long subnetCapacity,
+            @Value("${rate-limit.auth.subnet.refill-per-minute:300}") long subnetRefillPerMinute,
+            @Value("${rate-limit.auth.max-tracked-keys:100000}") long maxTrackedKeys) {
+        this.enabled = enabled;
+        this.objectMapper = objectMapper;
+        this.ipLimiter = new TokenBucketRateLimiter(ipCapacity, ipRefillPerMinute, maxTrackedKeys);
+        this.subnetLimiter = new TokenBucketRateLimiter(subnetCapacity, subnetRefillPerMinute, maxTrackedKeys);
+        this.ipRejected = Counter.builder("auth.rate_limit.rejected")
+                .tag("scope", "ip")
+                .register(meterRegistry);
+        this.subnetRejected = Counter.builder("auth.rate_limit.rejected")
+                .tag("scope", "subnet")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !LIMITED_PATHS.contains(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response, FilterChain chain
+    ) throws IOException, ServletException {
+
+        // IP client thật: RemoteIpValve (server.forward-headers-strategy=native) chỉ lấy từ X-Forwarded-For
+        // khi request đến từ proxy tin cậy (server.tomcat.remoteip.internal-proxies), ngược lại là IP kết nối
+        String ip = request.getRemoteAddr();
+
+        if (!ipLimiter.tryAcquire(ip)) {
+            ipRejected.increment();
+            log.warn("Rate limit exceeded for IP: {} on {}", ip, request.getServletPath());
+            reject(request, response, ipLimiter);
+            return;
+        }
+
+        if (!subnetLimiter.tryAcquire(subnetOf(ip))) {
+            subnetRejected.increment();
+            log.warn("Rate limit exceeded for subnet of IP: {} on {}", ip, request.getServletPath());
+            reject(request, response, subnetLimiter);
+            return;
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, TokenBucketRateLimiter limiter)
+            throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(limiter.retryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error(HttpStatus.TOO_MANY_REQUESTS, "Too many requests", request.getRequestURI()));
+    }
+
+    /**
+     * /24 cho IPv4, /64 cho IPv6. Địa chỉ được parse bằng InetAddress để mọi cách viết
+     * của cùng một địa chỉ IPv6 (nén "::", chữ hoa/thường, có zone id) rơi vào cùng một bucket.
+     * Chỉ nhận IP literal, không resolve DNS.
+     */
+    static String subnetOf(String ip) {
+        if (ip == null) {
+            return "";
+        }
+        // Bỏ zone id (fe80::1%eth0) trước khi parse
+        int zone = ip.indexOf('%');
+        String literal = zone >= 0 ? ip.substring(0, zone) : ip;
+        if (!isIpLiteral(literal)) {
+            return ip;
+        }
+        byte[] address;
+        try {
+            address = InetAddress.getByName(literal).getAddress();
+        } catch (UnknownHostException e) {
+            return ip;
+        }
+
+        if (address.length == 4) {
+            return (address[0] & 0xff) + "." + (address[1] & 0xff) + "." + (address[2] & 0xff) + ".0/24";
+        }
+        StringBuilder prefix = new StringBuilder();
+        for (int i = 0; i < 8; i += 2) {
+            prefix.append(Integer.toHexString(((address[i] & 0xff) << 8) | (address[i + 1] & 0xff))).append(':');
+        }
+        return prefix.append(":/64").toString();
+    }
+
+    /**
+     * Chỉ chuỗi này mới được đưa vào InetAddress.getByName: mọi chuỗi khác có thể bị resolve DNS
+     * trên request thread (IP lấy từ X-Forwarded-For nên client kiểm soát được)
+     */
+    static boolean isIpLiteral(String value) {
+        return IPV4_LITERAL.matcher(value).matches() || IPV6_LITERAL.matcher(value).matches();
+    }
+}
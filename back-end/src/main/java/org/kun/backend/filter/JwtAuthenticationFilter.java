@@ -6,9 +6,14 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.kun.backend.component.JwtTokenUtils;
+import org.kun.backend.component.TokenRevocationRegistry;
+import org.kun.backend.component.VerifiedToken;
+import org.kun.backend.component.VerifiedTokenCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -16,6 +21,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 
@@ -24,9 +30,13 @@ import io.jsonwebtoken.JwtException;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtTokenUtils jwt;
+    private final VerifiedTokenCache tokenCache;
+    private final TokenRevocationRegistry revocationRegistry;
     private final UserDetailsService userDetailsService;
 
+    @Value("${jwt.stateless.enabled:false}")
+    private boolean statelessEnabled;
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request, HttpServletResponse response, FilterChain chain
@@ -42,21 +52,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             String token = auth.substring(7);
-            
-            // Kiểm tra token hợp lệ trước khi extract
-            if (!jwt.isValid(token)) {
-                log.warn("Invalid or expired JWT token");
+
+            // Lấy từ cache nếu token đã verify trước đó, nếu không thì parse + verify một lần
+            VerifiedToken verified = tokenCache.verify(token);
+            String username = verified.getSubject();
+
+            // Token đã bị thu hồi (revoke-all, đổi status/role)
+            if (revocationRegistry.isRevoked(verified)) {
+                log.warn("JWT token has been revoked for user: {}", username);
                 chain.doFilter(request, response);
                 return;
             }
 
-            String username = jwt.extractUsername(token);
-
             // Kiểm tra token chưa được set vào context
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                // Load user details và kiểm tra trạng thái
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                // Stateless mode: dựng user từ claims, không query DB; ngược lại load user details
+                UserDetails userDetails = statelessEnabled
+                        ? fromClaims(verified)
+                        : userDetailsService.loadUserByUsername(username);
                 
                 // Kiểm tra user có enabled và không bị locked không
                 if (!userDetails.isEnabled()) {
@@ -88,17 +102,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         } catch (ExpiredJwtException ex) {
             log.warn("JWT token expired: {}", ex.getMessage());
             // Cho phép request tiếp tục, Spring Security sẽ xử lý khi endpoint cần auth
-            chain.doFilter(request, response);
         } catch (JwtException ex) {
             log.warn("JWT token validation failed: {}", ex.getMessage());
-            chain.doFilter(request, response);
         } catch (Exception ex) {
             log.error("Cannot set user authentication in security context: {}", ex.getMessage(), ex);
             // Không throw exception, cho phép request tiếp tục
             // GlobalExceptionHandler sẽ xử lý khi endpoint cần authentication
-            chain.doFilter(request, response);
         }
 
         chain.doFilter(request, response);
     }
+
+    private UserDetails fromClaims(VerifiedToken verified) {
+        String status = verified.getStatus();
+        List<SimpleGrantedAuthority> authorities = verified.getRole() != null
+                ? List.of(new SimpleGrantedAuthority("ROLE_" + verified.getRole()))
+                : List.of();
+
+        return User.withUsername(verified.getSubject())
+                .password("")
+                .authorities(authorities)
+                .disabled(!"ACTIVE".equalsIgnoreCase(status))
+                .accountLocked("LOCKED".equalsIgnoreCase(status))
+                .build();
+    }
 }
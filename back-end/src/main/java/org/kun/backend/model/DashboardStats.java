@@ -0,0 +1,40 @@
+package org.kun.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Một shard bộ đếm cho dashboard admin (id 1..SHARD_COUNT, db/migration/V9).
+ * Được cập nhật bởi trigger trên bảng users, ứng dụng chỉ đọc; giá trị thật là tổng các shard.
+ */
+@Entity
+@Immutable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "dashboard_stats")
+public class DashboardStats {
+    public static final int SHARD_COUNT = 16;
+
+    @Id
+    private Short id;
+
+    @Column(name = "total_users", nullable = false)
+    private Long totalUsers;
+
+    @Column(name = "active_users", nullable = false)
+    private Long activeUsers;
+
+    @Column(name = "total_orders", nullable = false)
+    private Long totalOrders;
+
+    @Column(name = "total_revenue", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalRevenue;
+
+    @Column(name = "updated_at", nullable = false)
+    private Date updatedAt;
+}
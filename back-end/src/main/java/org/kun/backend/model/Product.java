@@ -0,0 +1,44 @@
+package org.kun.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+// Listing đọc qua projection + keyset, index partial theo status = 'ACTIVE' (db/migration/V7)
+@Table(name = "products")
+public class Product extends BaseEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "category_id", nullable = false)
+    private Category category;
+
+    @Column(nullable = false, length = 255)
+    private String name;
+
+    @Column(nullable = false, unique = true, length = 255)
+    private String slug;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    // Giá hiển thị trên listing, NUMERIC(12, 2) và >= 0 (V7); variant không có giá riêng dùng giá này
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal price;
+
+    @Column(name = "image_url", length = 500)
+    private String imageUrl;
+
+    // ACTIVE | INACTIVE
+    @Column(nullable = false, length = 20)
+    private String status;
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.util.Date;
+import java.util.UUID;
 
 @Entity
 @Getter
@@ -11,14 +12,26 @@ import java.util.Date;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "refresh_tokens")
+// Bảng được partition theo tuần trên created_at (db/migration/V2), partition do RefreshTokenPartitionManager quản lý.
+// Index partial (user_id, created_at) WHERE revoked = false AND expired = false phục vụ các query theo user.
+// Postgres yêu cầu partition key trong unique constraint: token_hash chỉ unique cùng với created_at.
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_user_active_created", columnList = "user_id, created_at")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_refresh_tokens_token_hash_created", columnNames = {"token_hash", "created_at"})
+})
 public class RefreshToken {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(unique = true, nullable = false)
-    private String token;
+    // SHA-256 của refresh token (32 bytes), không lưu token gốc
+    @Column(name = "token_hash", nullable = false, length = 32)
+    private byte[] tokenHash;
+
+    // Mọi token sinh ra từ cùng một lần login (qua các lần rotate) có chung family
+    @Column(name = "token_family")
+    private UUID tokenFamily;
 
     @Column(name = "revoked")
     private boolean revoked;
@@ -30,7 +43,15 @@ public class RefreshToken {
     @JoinColumn(name = "user_id")
     private User user;
 
-    @Column(name = "created_at")
+    // Partition key
+    @Column(name = "created_at", nullable = false)
     private Date createdAt;
+
+    @Column(name = "expires_at")
+    private Date expiresAt;
+
+    // Thời điểm token bị revoke do rotate (null nếu revoke vì logout/limit/revoke-all)
+    @Column(name = "rotated_at")
+    private Date rotatedAt;
 }
 
@@ -9,6 +9,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 @Entity
 @Getter
@@ -18,6 +19,9 @@ import java.util.List;
 @AllArgsConstructor
 @Table(name = "users")
 public class User extends BaseEntity implements UserDetails {
+    // Các status hợp lệ, dùng chung cho import hàng loạt và cập nhật status của admin
+    public static final Set<String> STATUSES = Set.of("ACTIVE", "INACTIVE", "LOCKED");
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -0,0 +1,25 @@
+package org.kun.backend.repository;
+
+import org.kun.backend.dto.response.CategoryResponse;
+import org.kun.backend.model.Category;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    @Query("""
+       select new org.kun.backend.dto.response.CategoryResponse(c.id, c.name, c.slug)
+       from Category c order by c.name asc
+    """)
+    List<CategoryResponse> findAllSummaries();
+
+    @Query("""
+       select new org.kun.backend.dto.response.CategoryResponse(c.id, c.name, c.slug)
+       from Category c where c.slug = :slug
+    """)
+    Optional<CategoryResponse> findSummaryBySlug(@Param("slug") String slug);
+}
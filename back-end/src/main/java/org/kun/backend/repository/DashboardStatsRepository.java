@@ -0,0 +1,66 @@
+package org.kun.backend.repository;
+
+import jakarta.persistence.LockModeType;
+import org.kun.backend.model.DashboardStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+public interface DashboardStatsRepository extends JpaRepository<DashboardStats, Short> {
+
+    interface UserCounts {
+        long getTotalUsers();
+        long getActiveUsers();
+    }
+
+    interface Totals extends UserCounts {
+        long getTotalOrders();
+        BigDecimal getTotalRevenue();
+        Date getUpdatedAt();
+    }
+
+    /**
+     * Tổng của tất cả shard: đọc SHARD_COUNT dòng, không phụ thuộc kích thước bảng users/orders
+     */
+    @Query(value = """
+       select coalesce(sum(total_users), 0) as totalUsers, coalesce(sum(active_users), 0) as activeUsers,
+              coalesce(sum(total_orders), 0) as totalOrders, coalesce(sum(total_revenue), 0) as totalRevenue,
+              max(updated_at) as updatedAt
+       from dashboard_stats
+    """, nativeQuery = true)
+    Totals sumShards();
+
+    /**
+     * Khóa mọi shard theo thứ tự id (SELECT ... FOR UPDATE, dùng khi reconcile)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from DashboardStats s order by s.id")
+    List<DashboardStats> findAllForUpdate();
+
+    /**
+     * Đếm lại toàn bộ bảng users (chỉ dùng cho reconcile định kỳ, không dùng cho dashboard)
+     */
+    @Query(value = """
+       select count(*) as totalUsers, count(*) filter (where status = 'ACTIVE') as activeUsers
+       from users
+    """, nativeQuery = true)
+    UserCounts recountUsers();
+
+    /**
+     * Dồn số đếm đúng vào shard 1 và đưa các shard còn lại về 0
+     */
+    @Modifying
+    @Query(value = """
+       update dashboard_stats
+       set total_users = case when id = 1 then :totalUsers else 0 end,
+           active_users = case when id = 1 then :activeUsers else 0 end,
+           updated_at = now()
+    """, nativeQuery = true)
+    int overwriteUserCounts(@Param("totalUsers") long totalUsers, @Param("activeUsers") long activeUsers);
+}
@@ -0,0 +1,27 @@
+package org.kun.backend.repository;
+
+import org.kun.backend.dto.response.ProductDetailResponse;
+import org.kun.backend.model.Product;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+
+    boolean existsBySlug(String slug);
+
+    boolean existsBySlugAndIdNot(String slug, Long id);
+
+    /**
+     * Chi tiết product ACTIVE theo slug (projection, variants load riêng)
+     */
+    @Query("""
+       select new org.kun.backend.dto.response.ProductDetailResponse(
+           p.id, p.name, p.slug, p.description, p.price, p.imageUrl, c.slug, c.name)
+       from Product p join p.category c
+       where p.slug = :slug and p.status = 'ACTIVE'
+    """)
+    Optional<ProductDetailResponse> findActiveDetailBySlug(@Param("slug") String slug);
+}
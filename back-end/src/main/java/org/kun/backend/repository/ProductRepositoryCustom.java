@@ -0,0 +1,16 @@
+package org.kun.backend.repository;
+
+import org.kun.backend.dto.request.ProductFilter;
+import org.kun.backend.dto.response.ProductSummaryResponse;
+import org.kun.backend.util.ProductCursor;
+
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Lấy tối đa limit product ACTIVE sau cursor (keyset pagination) theo thứ tự sort
+     */
+    List<ProductSummaryResponse> findPublicPage(ProductFilter filter, ProductCursor.Sort sort,
+                                                ProductCursor after, int limit);
+}
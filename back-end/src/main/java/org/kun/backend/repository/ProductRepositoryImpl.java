@@ -0,0 +1,86 @@
+package org.kun.backend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.kun.backend.dto.request.ProductFilter;
+import org.kun.backend.dto.response.ProductSummaryResponse;
+import org.kun.backend.util.ProductCursor;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Query listing product public. Predicate keyset khớp với index partial của từng thứ tự sort
+ * (db/migration/V7), filter variant là EXISTS trên product_variants(product_id, size, color).
+ */
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<ProductSummaryResponse> findPublicPage(ProductFilter filter, ProductCursor.Sort sort,
+                                                       ProductCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder("""
+                select new org.kun.backend.dto.response.ProductSummaryResponse(
+                    p.id, p.name, p.slug, p.price, p.imageUrl, c.slug, c.name)
+                from Product p join p.category c
+                where p.status = 'ACTIVE'
+                """);
+        Map<String, Object> params = new LinkedHashMap<>();
+
+        if (filter.getCategoryId() != null) {
+            jpql.append(" and p.category.id = :categoryId");
+            params.put("categoryId", filter.getCategoryId());
+        }
+        if (filter.getMinPrice() != null) {
+            jpql.append(" and p.price >= :minPrice");
+            params.put("minPrice", filter.getMinPrice());
+        }
+        if (filter.getMaxPrice() != null) {
+            jpql.append(" and p.price <= :maxPrice");
+            params.put("maxPrice", filter.getMaxPrice());
+        }
+        if (filter.getSize() != null || filter.getColor() != null || filter.isInStock()) {
+            // size/color lọc theo variant bất kể tồn kho; inStock=true thì variant đó phải còn hàng
+            jpql.append(" and exists (select 1 from ProductVariant v where v.product = p");
+            if (filter.isInStock()) {
+                jpql.append(" and v.stock > 0");
+            }
+            if (filter.getSize() != null) {
+                jpql.append(" and v.size = :size");
+                params.put("size", filter.getSize());
+            }
+            if (filter.getColor() != null) {
+                jpql.append(" and v.color = :color");
+                params.put("color", filter.getColor());
+            }
+            jpql.append(")");
+        }
+
+        if (after != null) {
+            switch (sort) {
+                case NEWEST -> jpql.append(" and p.id < :afterId");
+                // price >= :afterPrice là cận của index range scan, phần OR chỉ loại các dòng trùng giá đã trả
+                case PRICE_ASC -> jpql.append(" and p.price >= :afterPrice and (p.price > :afterPrice or p.id > :afterId)");
+                case PRICE_DESC -> jpql.append(" and p.price <= :afterPrice and (p.price < :afterPrice or p.id < :afterId)");
+            }
+            params.put("afterId", after.id());
+            if (sort != ProductCursor.Sort.NEWEST) {
+                params.put("afterPrice", after.price());
+            }
+        }
+
+        jpql.append(switch (sort) {
+            case NEWEST -> " order by p.id desc";
+            case PRICE_ASC -> " order by p.price asc, p.id asc";
+            case PRICE_DESC -> " order by p.price desc, p.id desc";
+        });
+
+        TypedQuery<ProductSummaryResponse> query = em.createQuery(jpql.toString(), ProductSummaryResponse.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
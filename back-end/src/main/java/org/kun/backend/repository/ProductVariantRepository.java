@@ -0,0 +1,23 @@
+package org.kun.backend.repository;
+
+import org.kun.backend.dto.response.VariantResponse;
+import org.kun.backend.model.ProductVariant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ProductVariantRepository extends JpaRepository<ProductVariant, Long> {
+
+    @Query("""
+       select new org.kun.backend.dto.response.VariantResponse(v.id, v.sku, v.size, v.color, v.price, v.stock)
+       from ProductVariant v where v.product.id = :productId order by v.id asc
+    """)
+    List<VariantResponse> findSummariesByProductId(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("delete from ProductVariant v where v.product.id = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+}
@@ -2,20 +2,128 @@ package org.kun.backend.repository;
 
 import org.kun.backend.model.RefreshToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
-    Optional<RefreshToken> findByToken(String token);
+    /**
+     * Điều kiện created_at giúp Postgres chỉ quét các partition còn trong thời gian sống của refresh token
+     */
+    Optional<RefreshToken> findByTokenHashAndCreatedAtAfter(byte[] tokenHash, Date createdAfter);
+
+    /**
+     * Lấy token kèm user và role trong một query (refresh path)
+     */
+    @Query("""
+       select t from RefreshToken t join fetch t.user u left join fetch u.role
+       where t.tokenHash = :tokenHash and t.createdAt > :createdAfter
+    """)
+    Optional<RefreshToken> findWithUserByTokenHash(@Param("tokenHash") byte[] tokenHash,
+                                                   @Param("createdAfter") Date createdAfter);
 
     @Query("""
        select t from RefreshToken t inner join t.user u
        where u.id = :userId and t.revoked = false and t.expired = false
     """)
     List<RefreshToken> findAllValidTokenByUser(Long userId);
+
+    /**
+     * Revoke tất cả token còn hiệu lực của user bằng một câu UPDATE
+     */
+    @Modifying
+    @Query("""
+       update RefreshToken t set t.revoked = true
+       where t.user.id = :userId and t.revoked = false and t.expired = false
+         and t.createdAt > :createdAfter
+    """)
+    int revokeAllByUserId(@Param("userId") Long userId, @Param("createdAfter") Date createdAfter);
+
+    /**
+     * Revoke toàn bộ token còn hiệu lực của nhiều user bằng một câu UPDATE (bulk đổi status)
+     */
+    @Modifying
+    @Query("""
+       update RefreshToken t set t.revoked = true
+       where t.user.id in :userIds and t.revoked = false and t.expired = false
+         and t.createdAt > :createdAfter
+    """)
+    int revokeAllByUserIds(@Param("userIds") Collection<Long> userIds, @Param("createdAfter") Date createdAfter);
+
+    /**
+     * Revoke token (do rotate) nếu nó vẫn còn hiệu lực; trả về 0 nếu đã bị revoke trước đó (bởi request khác)
+     */
+    @Modifying
+    @Query("""
+       update RefreshToken t set t.revoked = true, t.rotatedAt = :rotatedAt
+       where t.id = :id and t.createdAt = :createdAt and t.revoked = false
+    """)
+    int revokeIfActive(@Param("id") Long id, @Param("createdAt") Date createdAt, @Param("rotatedAt") Date rotatedAt);
+
+    /**
+     * Đọc thời điểm rotate mới nhất (bỏ qua persistence context, vì row có thể vừa được request khác cập nhật)
+     */
+    @Query(value = """
+       select rotated_at from refresh_tokens where id = :id and created_at = :createdAt
+    """, nativeQuery = true)
+    Date findRotatedAt(@Param("id") Long id, @Param("createdAt") Date createdAt);
+
+    /**
+     * Revoke toàn bộ token còn hiệu lực trong một family (phát hiện reuse) bằng một câu UPDATE
+     */
+    @Modifying
+    @Query("""
+       update RefreshToken t set t.revoked = true
+       where t.tokenFamily = :tokenFamily and t.revoked = false and t.createdAt > :createdAfter
+    """)
+    int revokeFamily(@Param("tokenFamily") UUID tokenFamily, @Param("createdAfter") Date createdAfter);
+
+    /**
+     * Chỉ giữ lại keep token mới nhất còn hiệu lực của user, revoke phần còn lại (cũ nhất) trong một câu UPDATE
+     */
+    @Modifying
+    @Query(value = """
+       update refresh_tokens set revoked = true
+       where created_at > :createdAfter and id in (
+           select id from refresh_tokens
+           where user_id = :userId and revoked = false and expired = false
+             and created_at > :createdAfter
+           order by created_at desc, id desc
+           offset :keep
+       )
+    """, nativeQuery = true)
+    int revokeOldestBeyond(@Param("userId") Long userId,
+                           @Param("keep") int keep,
+                           @Param("createdAfter") Date createdAfter);
+
+    /**
+     * Xóa một batch token đã expired, quá expires_at hoặc tạo trước createdBefore trong refresh_tokens_default.
+     * Các partition theo tuần được RefreshTokenPartitionManager drop nguyên partition, không DELETE từng row;
+     * partition default chỉ chứa row rơi ngoài khoảng partition đã tạo nên không bao giờ bị drop.
+     * Chỉ xóa token hết hạn: token đã revoke nhưng chưa hết hạn được giữ lại để phát hiện reuse (token family).
+     * SKIP LOCKED cho phép nhiều node chạy cleanup cùng lúc mà không chờ nhau.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+       delete from refresh_tokens_default where id in (
+           select id from refresh_tokens_default
+           where expired = true or expires_at < :now or created_at < :createdBefore
+           limit :batchSize
+           for update skip locked
+       )
+    """, nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") Date now,
+                           @Param("createdBefore") Date createdBefore,
+                           @Param("batchSize") int batchSize);
 }
 
 
@@ -2,12 +2,15 @@ package org.kun.backend.repository;
 
 import org.kun.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 
     Optional<User> findByPhone(String phone);
     
@@ -17,5 +20,26 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     @Query("SELECT u FROM User u WHERE u.username = :identifier OR u.email = :identifier")
     Optional<User> findByUsernameOrEmail(@Param("identifier") String identifier);
-}
 
+    /**
+     * Đổi status của nhiều user bằng một câu UPDATE, bỏ qua user đã ở status đó
+     */
+    @Modifying
+    @Query("""
+       UPDATE User u SET u.status = :status, u.updatedAt = :now
+       WHERE u.id IN :ids AND (u.status IS NULL OR u.status <> :status)
+    """)
+    int updateStatusByIds(@Param("ids") Collection<Long> ids,
+                          @Param("status") String status,
+                          @Param("now") LocalDateTime now);
+
+    /**
+     * Ghi hash mới chỉ khi hash trong DB vẫn là hash cũ, không merge cả entity
+     * nên không ghi đè status/profile bị đổi song song
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int updatePasswordIfUnchanged(@Param("id") Long id,
+                                  @Param("oldHash") String oldHash,
+                                  @Param("newHash") String newHash);
+}
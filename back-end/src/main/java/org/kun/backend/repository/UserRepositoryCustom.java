@@ -0,0 +1,28 @@
+package org.kun.backend.repository;
+
+import org.kun.backend.dto.request.AdminUserFilter;
+import org.kun.backend.dto.response.AdminUserResponse;
+import org.kun.backend.model.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Lấy tối đa limit user có id > afterId (keyset pagination), sắp xếp theo id tăng dần
+     */
+    List<AdminUserResponse> findAdminPage(AdminUserFilter filter, Long afterId, int limit);
+
+    /**
+     * Insert nhiều user bằng JDBC batch (ON CONFLICT DO NOTHING).
+     * Phần tử trả về là số dòng được insert cho từng user: 0 nghĩa là trùng username/email.
+     */
+    int[] batchInsert(List<User> users);
+
+    /**
+     * Trả về các username/email trong danh sách đã tồn tại (một query cho cả batch)
+     */
+    Set<String> findExistingIdentifiers(Collection<String> usernames, Collection<String> emails);
+}
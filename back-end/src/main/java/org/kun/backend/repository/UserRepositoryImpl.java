@@ -0,0 +1,125 @@
+package org.kun.backend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.kun.backend.dto.request.AdminUserFilter;
+import org.kun.backend.dto.response.AdminUserResponse;
+import org.kun.backend.model.User;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Query danh sách user cho admin. Chỉ thêm điều kiện cho filter có giá trị
+ * để PostgreSQL chọn đúng index (status, id) / (role_id, id) / lower(email).
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final String BATCH_INSERT_SQL = """
+            INSERT INTO users (username, email, password, full_name, phone, address, role_id, status, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT DO NOTHING
+            """;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<AdminUserResponse> findAdminPage(AdminUserFilter filter, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder("""
+                select new org.kun.backend.dto.response.AdminUserResponse(
+                    u.id, u.username, u.email, u.fullName, u.phone, u.status, r.name, u.createdAt)
+                from User u left join u.role r
+                where 1 = 1
+                """);
+        Map<String, Object> params = new LinkedHashMap<>();
+
+        if (afterId != null) {
+            jpql.append(" and u.id > :afterId");
+            params.put("afterId", afterId);
+        }
+        if (filter.getStatus() != null) {
+            jpql.append(" and u.status = :status");
+            params.put("status", filter.getStatus());
+        }
+        if (filter.getRoleId() != null) {
+            // Lọc theo role_id (không qua join) để seek trên index (role_id, id)
+            jpql.append(" and u.role.id = :roleId");
+            params.put("roleId", filter.getRoleId());
+        }
+        if (filter.getEmailPrefix() != null) {
+            jpql.append(" and lower(u.email) like :emailPrefix escape '\\'");
+            params.put("emailPrefix", escapeLike(filter.getEmailPrefix().toLowerCase(Locale.ROOT)) + "%");
+        }
+        jpql.append(" order by u.id asc");
+
+        TypedQuery<AdminUserResponse> query = em.createQuery(jpql.toString(), AdminUserResponse.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public int[] batchInsert(List<User> users) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.batchUpdate(BATCH_INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                User user = users.get(i);
+                ps.setString(1, user.getUsername());
+                ps.setString(2, user.getEmail());
+                ps.setString(3, user.getPassword());
+                ps.setString(4, user.getFullName());
+                ps.setString(5, user.getPhone());
+                ps.setString(6, user.getAddress());
+                ps.setObject(7, user.getRole() != null ? user.getRole().getId() : null, Types.BIGINT);
+                ps.setString(8, user.getStatus());
+                ps.setTimestamp(9, now);
+                ps.setTimestamp(10, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return users.size();
+            }
+        });
+    }
+
+    @Override
+    public Set<String> findExistingIdentifiers(Collection<String> usernames, Collection<String> emails) {
+        Set<String> existing = new HashSet<>();
+        jdbcTemplate.query(
+                "SELECT username, email FROM users WHERE username = ANY (?) OR email = ANY (?)",
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("varchar", usernames.toArray()));
+                    ps.setArray(2, ps.getConnection().createArrayOf("varchar", emails.toArray()));
+                },
+                rs -> {
+                    existing.add(rs.getString("username"));
+                    existing.add(rs.getString("email"));
+                });
+        return existing;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,109 @@
+package org.kun.backend.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.kun.backend.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chạy encode/matches của PasswordEncoder (BCrypt) trên một thread pool riêng có giới hạn.
+ * Số thread hash cùng lúc bị chặn trên, hàng đợi có giới hạn; khi đầy thì ném
+ * ServiceUnavailableException (503) ngay thay vì để login storm chiếm hết CPU và Tomcat worker.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int poolSize, int queueCapacity, Duration timeout) {
+        this.delegate = delegate;
+        this.timeoutMs = timeout.toMillis();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + threadIndex.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Không hash, chỉ đọc prefix/params nên chạy trực tiếp
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public ThreadPoolExecutor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Encoder gốc, dùng cho tác vụ nền (bulk import) tự quản lý thread pool riêng,
+     * không chiếm chỗ của login trong pool này
+     */
+    public PasswordEncoder getDelegate() {
+        return delegate;
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("Password hashing queue is full (active={}, queued={})",
+                    executor.getActiveCount(), executor.getQueue().size());
+            throw new ServiceUnavailableException("Server is busy, please try again later", e);
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Password hashing timed out after {} ms", timeoutMs);
+            throw new ServiceUnavailableException("Server is busy, please try again later", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new ServiceUnavailableException("Password hashing interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,134 @@
+package org.kun.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.kun.backend.component.TokenRevocationRegistry;
+import org.kun.backend.component.UserDetailsCache;
+import org.kun.backend.dto.request.AdminUserFilter;
+import org.kun.backend.dto.request.BulkStatusUpdateRequest;
+import org.kun.backend.dto.response.AdminUserResponse;
+import org.kun.backend.dto.response.BulkStatusUpdateResult;
+import org.kun.backend.dto.response.CursorPage;
+import org.kun.backend.model.Role;
+import org.kun.backend.model.User;
+import org.kun.backend.repository.RefreshTokenRepository;
+import org.kun.backend.repository.RoleRepository;
+import org.kun.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdminUserService {
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
+    static final int MAX_BULK_STATUS_IDS = 10_000;
+
+    private final UserRepository userRepo;
+    private final RefreshTokenRepository refreshRepo;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final UserDetailsCache userDetailsCache;
+    private final RoleRepository roleRepository;
+
+    // Tên role -> id; bảng roles rất nhỏ và gần như không đổi
+    private final Map<String, Long> roleIds = new ConcurrentHashMap<>();
+
+    @Value("${jwt.expiration.refresh}")
+    private long refreshExpMs;
+
+    /**
+     * Danh sách user theo keyset (id > cursor): trang sâu tốn cùng chi phí như trang đầu.
+     * Lấy thừa một dòng để biết còn trang sau hay không, không cần COUNT(*).
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AdminUserResponse> listUsers(AdminUserFilter filter, Long cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        List<AdminUserResponse> rows = userRepo.findAdminPage(normalize(filter), cursor, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<AdminUserResponse> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        return CursorPage.<AdminUserResponse>builder()
+                .items(items)
+                .nextCursor(hasMore ? String.valueOf(items.get(items.size() - 1).getId()) : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Đổi status của nhiều user bằng một câu UPDATE. Status khác ACTIVE thì revoke refresh token
+     * của các user đó bằng một câu UPDATE và thu hồi luôn access token đang còn hạn.
+     */
+    @Transactional
+    public BulkStatusUpdateResult updateStatus(BulkStatusUpdateRequest request) {
+        String status = upperOrNull(request.getStatus());
+        if (status == null || !User.STATUSES.contains(status)) {
+            throw new IllegalArgumentException("Status must be one of " + User.STATUSES);
+        }
+        if (request.getUserIds() == null || request.getUserIds().isEmpty()) {
+            throw new IllegalArgumentException("userIds is required");
+        }
+        Set<Long> ids = new LinkedHashSet<>(request.getUserIds());
+        ids.remove(null);
+        if (ids.size() > MAX_BULK_STATUS_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_STATUS_IDS + " userIds per request");
+        }
+
+        int updated = userRepo.updateStatusByIds(ids, status, LocalDateTime.now());
+        int revoked = 0;
+        if (!"ACTIVE".equals(status)) {
+            revoked = refreshRepo.revokeAllByUserIds(ids, new Date(System.currentTimeMillis() - refreshExpMs));
+            revocationRegistry.revokeUsers(ids);
+        }
+        userDetailsCache.evictUserIds(ids);
+        log.info("Bulk status update to {}: {} requested, {} updated, {} refresh tokens revoked",
+                status, ids.size(), updated, revoked);
+
+        return BulkStatusUpdateResult.builder()
+                .requested(ids.size())
+                .updated(updated)
+                .revokedRefreshTokens(revoked)
+                .build();
+    }
+
+    // Bỏ filter rỗng; status/role được lưu dạng chữ hoa, role được resolve sang id
+    private AdminUserFilter normalize(AdminUserFilter filter) {
+        String role = upperOrNull(filter.getRole());
+        return AdminUserFilter.builder()
+                .status(upperOrNull(filter.getStatus()))
+                .role(role)
+                .roleId(role == null ? null : resolveRoleId(role))
+                .emailPrefix(filter.getEmailPrefix() == null || filter.getEmailPrefix().isBlank()
+                        ? null : filter.getEmailPrefix().trim())
+                .build();
+    }
+
+    private Long resolveRoleId(String role) {
+        Long id = roleIds.computeIfAbsent(role,
+                name -> roleRepository.findByName(name).map(Role::getId).orElse(null));
+        if (id == null) {
+            throw new IllegalArgumentException("Unknown role: " + role);
+        }
+        return id;
+    }
+
+    private static String upperOrNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -1,12 +1,17 @@
 package org.kun.backend.service;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.kun.backend.component.JwtTokenUtils;
+import org.kun.backend.component.RefreshGraceCache;
+import org.kun.backend.component.TokenRevocationRegistry;
+import org.kun.backend.component.UserDetailsCache;
 import org.kun.backend.dto.request.RegisterRequest;
 import org.kun.backend.dto.response.AuthResponse;
 import org.kun.backend.exception.InvalidCredentialsException;
 import org.kun.backend.exception.ResourceNotFoundException;
+import org.kun.backend.exception.ServiceUnavailableException;
 import org.kun.backend.model.RefreshToken;
 import org.kun.backend.model.Role;
 import org.kun.backend.model.User;
@@ -14,35 +19,52 @@ import org.kun.backend.repository.RefreshTokenRepository;
 import org.kun.backend.repository.RoleRepository;
 import org.kun.backend.repository.UserRepository;
 import org.kun.backend.util.LoginAttemptTracker;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.AuthenticationException;
+import org.kun.backend.util.TokenDigest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Date;
-import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuthService {
 
-    private final AuthenticationManager authManager;
     private final UserRepository userRepo;
     private final RefreshTokenRepository refreshRepo;
     private final JwtTokenUtils jwt;
     private final PasswordEncoder passwordEncoder;
     private final RoleRepository roleRepository;
     private final LoginAttemptTracker loginAttemptTracker;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final UserDetailsCache userDetailsCache;
+    private final RefreshGraceCache refreshGraceCache;
+    private final TransactionTemplate transactionTemplate;
 
     @org.springframework.beans.factory.annotation.Value("${jwt.expiration.access}")
     private long accessExpMs;
 
+    @org.springframework.beans.factory.annotation.Value("${jwt.expiration.refresh}")
+    private long refreshExpMs;
+
+    @org.springframework.beans.factory.annotation.Value("${jwt.refresh.max-tokens-per-user:5}")
+    private int maxTokensPerUser;
+
+    // Hash của một password ngẫu nhiên, encode bằng cấu hình hiện tại để có cùng cost với hash thật
+    private String dummyHash;
+
+    @PostConstruct
+    void initDummyHash() {
+        dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
+    }
+
     // LOGIN
-    @Transactional
+    // Không dùng @Transactional: BCrypt chạy ngoài transaction để không giữ connection trong lúc hash,
+    // chỉ phần ghi (upgrade hash + token) chạy trong một transaction ngắn
     public AuthResponse login(String usernameOrEmail, String password) {
         log.info("Attempting login for user: {}", usernameOrEmail);
         
@@ -52,61 +74,57 @@ public class AuthService {
             throw new InvalidCredentialsException("Account is temporarily locked due to too many failed attempts. Please try again later.");
         }
         
-        // Kiểm tra user có tồn tại không
-        User user = userRepo.findByUsernameOrEmail(usernameOrEmail)
-                .orElseThrow(() -> {
-                    log.warn("Login failed: User not found - {}", usernameOrEmail);
-                    // Ghi nhận failed attempt ngay cả khi user không tồn tại (không tiết lộ user có tồn tại)
-                    loginAttemptTracker.recordFailedAttempt(usernameOrEmail);
-                    return new ResourceNotFoundException("User not found");
-                });
-
-        // Kiểm tra trạng thái user
-        if (!"ACTIVE".equals(user.getStatus())) {
-            log.warn("Login failed: User is not active - {} (status: {})", usernameOrEmail, user.getStatus());
-            loginAttemptTracker.recordFailedAttempt(usernameOrEmail);
-            throw new InvalidCredentialsException("User account is not active");
-        }
+        // Một lần lookup duy nhất; user không tồn tại vẫn verify với dummy hash
+        // để hai trường hợp tốn cùng thời gian (không tiết lộ user có tồn tại)
+        Optional<User> found = userRepo.findByUsernameOrEmail(usernameOrEmail);
+        String storedHash = found.map(User::getPassword).orElse(dummyHash);
+        boolean passwordMatches = passwordEncoder.matches(password, storedHash);
 
-        // Xác thực thông tin đăng nhập
-        try {
-            authManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(usernameOrEmail, password)
-            );
-            log.info("Authentication successful for user: {}", usernameOrEmail);
-        } catch (BadCredentialsException e) {
+        if (found.isEmpty() || !passwordMatches) {
             log.warn("Login failed: Invalid credentials for user - {}", usernameOrEmail);
             loginAttemptTracker.recordFailedAttempt(usernameOrEmail);
             throw new InvalidCredentialsException("Invalid username/email or password");
-        } catch (AuthenticationException e) {
-            log.warn("Login failed: Authentication error for user - {}: {}", usernameOrEmail, e.getMessage());
+        }
+        User user = found.get();
+
+        // Kiểm tra trạng thái user (chỉ sau khi password đúng)
+        if (!"ACTIVE".equals(user.getStatus())) {
+            log.warn("Login failed: User is not active - {} (status: {})", usernameOrEmail, user.getStatus());
             loginAttemptTracker.recordFailedAttempt(usernameOrEmail);
-            throw new InvalidCredentialsException("Authentication failed");
+            throw new InvalidCredentialsException("User account is not active");
         }
+        log.info("Authentication successful for user: {}", usernameOrEmail);
 
         // Đăng nhập thành công - reset failed attempts
         loginAttemptTracker.recordSuccessfulAttempt(usernameOrEmail);
 
-        // Kiểm tra và giới hạn số lượng token TRƯỚC KHI tạo token mới
-        enforceTokenLimit(user);
-
-        // Xóa refresh token cũ
-        revokeAllUserTokens(user);
+        // Hash dùng thuật toán/cost cũ: encode lại bằng cấu hình hiện tại (ngoài transaction)
+        String upgradedHash = encodeUpgradedHash(user, password);
 
         // Tạo access + refresh mới
         String access = jwt.generateAccessToken(user);
         String refresh = jwt.generateRefreshToken(user);
-        
-        // Lưu refresh token vào DB
-        RefreshToken rf = RefreshToken.builder()
-                .token(refresh)
-                .user(user)
-                .revoked(false)
-                .expired(false)
-                .createdAt(new Date())
-                .build();
 
-        refreshRepo.save(rf);
+        Boolean hashUpgraded = transactionTemplate.execute(status -> {
+            // UPDATE có điều kiện trên hash cũ thay vì save(user): user ở đây là entity detached,
+            // merge sẽ ghi đè status/profile mà admin vừa đổi trong lúc BCrypt đang chạy
+            boolean upgraded = upgradedHash != null
+                    && userRepo.updatePasswordIfUnchanged(user.getId(), user.getPassword(), upgradedHash) == 1;
+            if (upgraded) {
+                userDetailsCache.evict(user);
+            }
+
+            // Xóa refresh token cũ (revoke tất cả nên không cần kiểm tra giới hạn số token)
+            revokeAllUserTokens(user);
+
+            // Lưu refresh token vào DB
+            saveRefreshToken(user, refresh, UUID.randomUUID());
+            return upgraded;
+        });
+
+        if (Boolean.TRUE.equals(hashUpgraded)) {
+            log.info("Password hash upgraded for user: {}", user.getUsername());
+        }
         log.info("Login successful for user: {}", usernameOrEmail);
 
         return AuthResponse.builder()
@@ -119,7 +137,7 @@ public class AuthService {
     }
 
     // REGISTER
-    @Transactional
+    // Hash password trước, phần insert user + token chạy trong một transaction ngắn
     public AuthResponse register(RegisterRequest request) {
         log.info("Attempting registration for user: {}", request.getUsername());
         
@@ -135,6 +153,32 @@ public class AuthService {
             throw new IllegalArgumentException("Email already exists");
         }
 
+        String encodedPassword = passwordEncoder.encode(request.getPassword());
+
+        return transactionTemplate.execute(status -> {
+            User user = createUser(request, encodedPassword);
+
+            // Kiểm tra và giới hạn số lượng token TRƯỚC KHI tạo token mới
+            enforceTokenLimit(user);
+
+            // Tạo tokens
+            String access = jwt.generateAccessToken(user);
+            String refresh = jwt.generateRefreshToken(user);
+
+            // Lưu refresh token
+            saveRefreshToken(user, refresh, UUID.randomUUID());
+
+            return AuthResponse.builder()
+                    .accessToken(access)
+                    .refreshToken(refresh)
+                    .tokenType("Bearer")
+                    .expiresIn(accessExpMs)
+                    .username(user.getUsername())
+                    .build();
+        });
+    }
+
+    private User createUser(RegisterRequest request, String encodedPassword) {
         // Tìm role USER mặc định (hoặc tạo nếu chưa có)
         Role userRole = roleRepository.findByName("USER")
                 .orElseGet(() -> {
@@ -148,7 +192,7 @@ public class AuthService {
         User user = User.builder()
                 .username(request.getUsername())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(encodedPassword)
                 .fullName(request.getFullName())
                 .phone(request.getPhone())
                 .address(request.getAddress())
@@ -158,46 +202,30 @@ public class AuthService {
 
         user = userRepo.save(user);
         log.info("User registered successfully: {}", request.getUsername());
-
-        // Kiểm tra và giới hạn số lượng token TRƯỚC KHI tạo token mới
-        enforceTokenLimit(user);
-
-        // Tạo tokens
-        String access = jwt.generateAccessToken(user);
-        String refresh = jwt.generateRefreshToken(user);
-        
-        // Lưu refresh token
-        RefreshToken rf = RefreshToken.builder()
-                .token(refresh)
-                .user(user)
-                .revoked(false)
-                .expired(false)
-                .createdAt(new Date())
-                .build();
-
-        refreshRepo.save(rf);
-
-        return AuthResponse.builder()
-                .accessToken(access)
-                .refreshToken(refresh)
-                .tokenType("Bearer")
-                .expiresIn(accessExpMs)
-                .username(user.getUsername())
-                .build();
+        return user;
     }
 
     // REFRESH TOKEN
-    @Transactional
+    // Không rollback khi ném InvalidCredentialsException để giữ lại các revoke đã thực hiện
+    @Transactional(noRollbackFor = {InvalidCredentialsException.class, ServiceUnavailableException.class})
     public AuthResponse refresh(String refreshToken) {
         log.info("Attempting token refresh");
+        byte[] tokenHash = TokenDigest.sha256(refreshToken);
         
-        RefreshToken stored = refreshRepo.findByToken(refreshToken)
+        // Một query: token + user + role
+        RefreshToken stored = refreshRepo.findWithUserByTokenHash(tokenHash, liveWindowStart())
                 .orElseThrow(() -> {
                     log.warn("Token refresh failed: Invalid refresh token");
                     return new ResourceNotFoundException("Invalid refresh token");
                 });
 
-        if (stored.isRevoked() || stored.isExpired() || jwt.isExpired(refreshToken)) {
+        // Token đã bị revoke: request song song trong grace window, hoặc reuse
+        if (stored.isRevoked()) {
+            return handleRotatedToken(stored, tokenHash);
+        }
+
+        // Hạn của token lấy từ DB, không cần parse JWT
+        if (stored.isExpired() || isPastExpiry(stored)) {
             log.warn("Token refresh failed: Token is revoked/expired");
             throw new InvalidCredentialsException("Refresh token is invalid or expired");
         }
@@ -210,16 +238,20 @@ public class AuthService {
             // Revoke token đã sử dụng
             stored.setRevoked(true);
             refreshRepo.save(stored);
+            // Access token còn hạn mang status cũ, thu hồi luôn
+            revocationRegistry.revokeUser(user.getId());
+            userDetailsCache.evict(user);
             throw new InvalidCredentialsException("User account is not active");
         }
 
+        // Token rotation: Revoke token cũ (atomic; request song song bị chặn ở row lock đến khi request thắng commit)
+        if (refreshRepo.revokeIfActive(stored.getId(), stored.getCreatedAt(), new Date()) == 0) {
+            return handleRotatedToken(stored, tokenHash);
+        }
+
         // Kiểm tra và giới hạn số lượng token TRƯỚC KHI tạo token mới
         enforceTokenLimit(user);
 
-        // Token rotation: Revoke token cũ
-        stored.setRevoked(true);
-        refreshRepo.save(stored);
-
         // Tạo access token mới
         String newAccess = jwt.generateAccessToken(user);
         
@@ -227,24 +259,20 @@ public class AuthService {
         String newRefresh = jwt.generateRefreshToken(user);
         
         // Lưu refresh token mới
-        RefreshToken newRefreshToken = RefreshToken.builder()
-                .token(newRefresh)
-                .user(user)
-                .revoked(false)
-                .expired(false)
-                .createdAt(new Date())
-                .build();
-        
-        refreshRepo.save(newRefreshToken);
+        saveRefreshToken(user, newRefresh, stored.getTokenFamily());
         log.info("Token refreshed successfully for user: {}", user.getUsername());
 
-        return AuthResponse.builder()
+        AuthResponse response = AuthResponse.builder()
                 .accessToken(newAccess)
                 .refreshToken(newRefresh)
                 .tokenType("Bearer")
                 .expiresIn(accessExpMs)
                 .username(user.getUsername())
                 .build();
+
+        // Giữ lại cặp token để trả cho các request song song cùng cookie (trước khi commit)
+        refreshGraceCache.put(tokenHash, response);
+        return response;
     }
 
     // LOGOUT
@@ -252,7 +280,7 @@ public class AuthService {
     public void logout(String refreshToken) {
         log.info("Attempting logout");
         
-        RefreshToken token = refreshRepo.findByToken(refreshToken)
+        RefreshToken token = refreshRepo.findByTokenHashAndCreatedAtAfter(TokenDigest.sha256(refreshToken), liveWindowStart())
                 .orElseThrow(() -> {
                     log.warn("Logout failed: Invalid refresh token");
                     return new ResourceNotFoundException("Invalid refresh token");
@@ -274,24 +302,88 @@ public class AuthService {
                     return new ResourceNotFoundException("User not found");
                 });
         revokeAllUserTokens(user);
+        revocationRegistry.revokeUser(user.getId());
+        userDetailsCache.evict(user);
     }
 
     private void revokeAllUserTokens(User user) {
-        List<RefreshToken> tokens = refreshRepo.findAllValidTokenByUser(user.getId());
-        tokens.forEach(t -> t.setRevoked(true));
-        refreshRepo.saveAll(tokens);
+        refreshRepo.revokeAllByUserId(user.getId(), liveWindowStart());
     }
-    
-    // Kiểm tra và giới hạn số lượng token
-    private void enforceTokenLimit(User user) {
-        List<RefreshToken> validTokens = refreshRepo.findAllValidTokenByUser(user.getId());
-        // Nếu vượt quá giới hạn, revoke token cũ nhất
-        if (validTokens.size() >= 5) {
-            // Sắp xếp theo thời gian tạo, revoke token cũ nhất
-            validTokens.sort((t1, t2) -> t1.getCreatedAt().compareTo(t2.getCreatedAt()));
-            RefreshToken oldestToken = validTokens.get(0);
-            oldestToken.setRevoked(true);
-            refreshRepo.save(oldestToken);
+
+    /**
+     * Token gửi lên đã bị revoke. Nếu nó vừa được rotate trong grace window thì đây là request song song:
+     * trả lại cặp token đã cấp (nếu node này cấp) hoặc yêu cầu client thử lại. Ngược lại là reuse.
+     */
+    private AuthResponse handleRotatedToken(RefreshToken stored, byte[] tokenHash) {
+        AuthResponse issued = refreshGraceCache.get(tokenHash);
+        if (issued != null) {
+            log.info("Concurrent refresh served from grace window for user: {}", stored.getUser().getUsername());
+            return issued.toBuilder().build();
         }
+
+        // Có thể request thắng chạy trên node khác: không coi là reuse trong grace window
+        Date graceStart = new Date(System.currentTimeMillis() - refreshGraceCache.getGracePeriod().toMillis());
+        Date rotatedAt = refreshRepo.findRotatedAt(stored.getId(), stored.getCreatedAt());
+        if (rotatedAt != null && rotatedAt.after(graceStart)) {
+            log.info("Concurrent refresh for just-rotated token of user: {}", stored.getUser().getUsername());
+            throw new ServiceUnavailableException("Refresh token was just rotated, please retry");
+        }
+
+        // Token đã bị rotate mà vẫn được gửi lại: có thể đã bị đánh cắp, revoke cả family
+        revokeFamily(stored);
+        throw new InvalidCredentialsException("Refresh token is invalid or expired");
+    }
+
+    private void revokeFamily(RefreshToken reused) {
+        int revoked = refreshRepo.revokeFamily(reused.getTokenFamily(), liveWindowStart());
+        log.warn("Refresh token reuse detected for user: {} - revoked {} token(s) in family {}",
+                reused.getUser().getUsername(), revoked, reused.getTokenFamily());
+    }
+
+    private void saveRefreshToken(User user, String refreshToken, UUID tokenFamily) {
+        Date now = new Date();
+        RefreshToken rf = RefreshToken.builder()
+                .tokenHash(TokenDigest.sha256(refreshToken))
+                .tokenFamily(tokenFamily)
+                .user(user)
+                .revoked(false)
+                .expired(false)
+                .createdAt(now)
+                .expiresAt(new Date(now.getTime() + refreshExpMs))
+                .build();
+
+        refreshRepo.save(rf);
+    }
+
+    // Token tạo trước mốc này chắc chắn đã hết hạn (và partition của nó có thể đã bị drop)
+    private Date liveWindowStart() {
+        return new Date(System.currentTimeMillis() - refreshExpMs);
+    }
+
+    private boolean isPastExpiry(RefreshToken token) {
+        // Row cũ chưa có expires_at: tính từ created_at
+        Date expiresAt = token.getExpiresAt() != null
+                ? token.getExpiresAt()
+                : new Date(token.getCreatedAt().getTime() + refreshExpMs);
+        return expiresAt.before(new Date());
+    }
+
+    // Trả về hash mới nếu hash hiện tại cần nâng cấp, null nếu không cần hoặc pool hash đang quá tải
+    private String encodeUpgradedHash(User user, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return null;
+        }
+        try {
+            return passwordEncoder.encode(rawPassword);
+        } catch (ServiceUnavailableException e) {
+            // Pool hash đang quá tải: bỏ qua, lần đăng nhập sau sẽ nâng cấp
+            log.warn("Skipping password hash upgrade for user: {}", user.getUsername());
+            return null;
+        }
+    }
+
+    // Kiểm tra và giới hạn số lượng token: chừa chỗ cho token sắp tạo, revoke các token cũ nhất vượt giới hạn
+    private void enforceTokenLimit(User user) {
+        refreshRepo.revokeOldestBeyond(user.getId(), Math.max(0, maxTokensPerUser - 1), liveWindowStart());
     }
 }
@@ -0,0 +1,59 @@
+package org.kun.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.kun.backend.dto.response.DashboardStatsResponse;
+import org.kun.backend.model.DashboardStats;
+import org.kun.backend.repository.DashboardStatsRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardService {
+
+    private final DashboardStatsRepository statsRepo;
+
+    // Cộng các shard bộ đếm: thời gian không phụ thuộc kích thước bảng users/orders
+    @Transactional(readOnly = true)
+    public DashboardStatsResponse getStats() {
+        DashboardStatsRepository.Totals stats = statsRepo.sumShards();
+
+        return DashboardStatsResponse.builder()
+                .totalUsers(stats.getTotalUsers())
+                .totalOrders(stats.getTotalOrders())
+                .totalRevenue(stats.getTotalRevenue())
+                .activeUsers(stats.getActiveUsers())
+                .updatedAt(stats.getUpdatedAt())
+                .build();
+    }
+
+    /**
+     * So sánh bộ đếm với số đếm lại từ bảng users, ghi đè nếu lệch.
+     * Trả về true nếu phát hiện lệch.
+     */
+    @Transactional
+    public boolean reconcileUserCounts() {
+        // Khóa mọi shard trước khi đếm: transaction đang ghi users phải commit xong,
+        // transaction mới chờ đến khi recount kết thúc, nên số đếm và bộ đếm cùng một thời điểm
+        List<DashboardStats> shards = statsRepo.findAllForUpdate();
+        if (shards.size() != DashboardStats.SHARD_COUNT) {
+            throw new IllegalStateException("dashboard_stats has " + shards.size() + " shards");
+        }
+        long recordedTotal = shards.stream().mapToLong(DashboardStats::getTotalUsers).sum();
+        long recordedActive = shards.stream().mapToLong(DashboardStats::getActiveUsers).sum();
+
+        DashboardStatsRepository.UserCounts actual = statsRepo.recountUsers();
+        if (recordedTotal == actual.getTotalUsers() && recordedActive == actual.getActiveUsers()) {
+            return false;
+        }
+
+        log.warn("Dashboard user counters drifted (total {} -> {}, active {} -> {}), correcting",
+                recordedTotal, actual.getTotalUsers(), recordedActive, actual.getActiveUsers());
+        statsRepo.overwriteUserCounts(actual.getTotalUsers(), actual.getActiveUsers());
+        return true;
+    }
+}
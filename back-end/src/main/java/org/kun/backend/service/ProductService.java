@@ -0,0 +1,236 @@
+package org.kun.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.kun.backend.component.CatalogCache;
+import org.kun.backend.dto.request.ProductFilter;
+import org.kun.backend.dto.request.ProductRequest;
+import org.kun.backend.dto.response.CategoryResponse;
+import org.kun.backend.dto.response.CursorPage;
+import org.kun.backend.dto.response.ProductDetailResponse;
+import org.kun.backend.dto.response.ProductSummaryResponse;
+import org.kun.backend.exception.ResourceNotFoundException;
+import org.kun.backend.model.Category;
+import org.kun.backend.model.Product;
+import org.kun.backend.model.ProductVariant;
+import org.kun.backend.repository.CategoryRepository;
+import org.kun.backend.repository.ProductRepository;
+import org.kun.backend.repository.ProductVariantRepository;
+import org.kun.backend.util.ProductCursor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductService {
+
+    static final int DEFAULT_PAGE_SIZE = 24;
+    static final int MAX_PAGE_SIZE = 100;
+    static final Set<String> ALLOWED_STATUSES = Set.of("ACTIVE", "INACTIVE");
+
+    private final ProductRepository productRepo;
+    private final ProductVariantRepository variantRepo;
+    private final CategoryRepository categoryRepo;
+    private final CatalogCache catalogCache;
+
+    // ========== Public (read) ==========
+
+    // Các method đọc không mở transaction: khi đọc qua CatalogCache, request chờ load không giữ connection
+
+    /**
+     * Listing product ACTIVE theo keyset: trang sâu tốn cùng chi phí như trang đầu, không COUNT(*).
+     * Trang đầu không filter (trang category mặc định) được đọc qua CatalogCache.
+     */
+    public CursorPage<ProductSummaryResponse> listProducts(String categorySlug, ProductFilter filter,
+                                                           String sortParam, String cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        ProductCursor.Sort sort = ProductCursor.Sort.parse(sortParam);
+
+        // Resolve slug trước để query listing dùng index (category_id, ...) mà không cần lọc qua join
+        String slug = categorySlug == null || categorySlug.isBlank() ? null : categorySlug.trim();
+        if (slug != null) {
+            filter.setCategoryId(getCategory(slug).getId());
+        }
+
+        if (cursor == null && pageSize == DEFAULT_PAGE_SIZE && isUnfiltered(filter)) {
+            return catalogCache.getListingFirstPage(slug, sort,
+                    () -> loadPage(filter, sort, null, pageSize));
+        }
+        return loadPage(filter, sort, ProductCursor.decode(cursor), pageSize);
+    }
+
+    private CursorPage<ProductSummaryResponse> loadPage(ProductFilter filter, ProductCursor.Sort sort,
+                                                        ProductCursor after, int pageSize) {
+        List<ProductSummaryResponse> rows = productRepo.findPublicPage(filter, sort, after, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<ProductSummaryResponse> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        ProductSummaryResponse last = hasMore ? items.get(items.size() - 1) : null;
+        return CursorPage.<ProductSummaryResponse>builder()
+                .items(items)
+                .nextCursor(last != null ? new ProductCursor(last.getPrice(), last.getId()).encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    public ProductDetailResponse getProduct(String slug) {
+        return catalogCache.getProduct(slug, () -> {
+                    Optional<ProductDetailResponse> detail = productRepo.findActiveDetailBySlug(slug);
+                    detail.ifPresent(d -> d.setVariants(variantRepo.findSummariesByProductId(d.getId())));
+                    return detail;
+                })
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+    }
+
+    public List<CategoryResponse> listCategories() {
+        return catalogCache.getCategories(categoryRepo::findAllSummaries);
+    }
+
+    public CategoryResponse getCategory(String slug) {
+        return catalogCache.getCategory(slug, () -> categoryRepo.findSummaryBySlug(slug))
+                .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
+    }
+
+    private static boolean isUnfiltered(ProductFilter filter) {
+        return filter.getMinPrice() == null && filter.getMaxPrice() == null
+                && filter.getSize() == null && filter.getColor() == null && !filter.isInStock();
+    }
+
+    // ========== Admin (write): PRODUCT_CREATE / PRODUCT_UPDATE / PRODUCT_DELETE ==========
+
+    @Transactional
+    public ProductDetailResponse createProduct(ProductRequest request) {
+        validate(request);
+        if (productRepo.existsBySlug(request.getSlug())) {
+            throw new IllegalArgumentException("Slug already exists");
+        }
+
+        Product product = Product.builder().build();
+        apply(product, request);
+        product = productRepo.save(product);
+        saveVariants(product, request);
+        // Slug mới có thể đang nằm trong negative cache
+        catalogCache.evictProduct(List.of(product.getSlug()), List.of(product.getCategory().getSlug()));
+        log.info("Product created: {} (id: {})", product.getSlug(), product.getId());
+        return toDetail(product);
+    }
+
+    @Transactional
+    public ProductDetailResponse updateProduct(Long id, ProductRequest request) {
+        validate(request);
+        Product product = productRepo.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+        if (productRepo.existsBySlugAndIdNot(request.getSlug(), id)) {
+            throw new IllegalArgumentException("Slug already exists");
+        }
+        String oldSlug = product.getSlug();
+        String oldCategorySlug = product.getCategory().getSlug();
+
+        apply(product, request);
+        product = productRepo.save(product);
+        // variants == null: giữ nguyên, ngược lại thay toàn bộ
+        if (request.getVariants() != null) {
+            variantRepo.deleteByProductId(id);
+            saveVariants(product, request);
+        }
+        catalogCache.evictProduct(Set.of(oldSlug, product.getSlug()),
+                Set.of(oldCategorySlug, product.getCategory().getSlug()));
+        log.info("Product updated: {} (id: {})", product.getSlug(), id);
+        return toDetail(product);
+    }
+
+    @Transactional
+    public void deleteProduct(Long id) {
+        Product product = productRepo.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+        // Variants bị xóa theo ON DELETE CASCADE
+        productRepo.delete(product);
+        catalogCache.evictProduct(List.of(product.getSlug()), List.of(product.getCategory().getSlug()));
+        log.info("Product deleted: {} (id: {})", product.getSlug(), id);
+    }
+
+    private void apply(Product product, ProductRequest request) {
+        Category category = categoryRepo.findById(request.getCategoryId())
+                .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
+        product.setCategory(category);
+        product.setName(request.getName().trim());
+        product.setSlug(request.getSlug().trim());
+        product.setDescription(request.getDescription());
+        product.setPrice(request.getPrice());
+        product.setImageUrl(request.getImageUrl());
+        product.setStatus(request.getStatus() == null ? "ACTIVE" : request.getStatus().trim().toUpperCase(Locale.ROOT));
+    }
+
+    private void saveVariants(Product product, ProductRequest request) {
+        if (request.getVariants() == null || request.getVariants().isEmpty()) {
+            return;
+        }
+        List<ProductVariant> variants = request.getVariants().stream()
+                .map(v -> ProductVariant.builder()
+                        .product(product)
+                        .sku(v.getSku().trim())
+                        .size(v.getSize())
+                        .color(v.getColor())
+                        .price(v.getPrice() != null ? v.getPrice() : product.getPrice())
+                        .stock(v.getStock() != null ? v.getStock() : 0)
+                        .build())
+                .toList();
+        variantRepo.saveAll(variants);
+    }
+
+    private ProductDetailResponse toDetail(Product product) {
+        return ProductDetailResponse.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .slug(product.getSlug())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .imageUrl(product.getImageUrl())
+                .categorySlug(product.getCategory().getSlug())
+                .categoryName(product.getCategory().getName())
+                .variants(variantRepo.findSummariesByProductId(product.getId()))
+                .build();
+    }
+
+    private void validate(ProductRequest request) {
+        if (request.getCategoryId() == null) {
+            throw new IllegalArgumentException("Category is required");
+        }
+        if (request.getName() == null || request.getName().isBlank()) {
+            throw new IllegalArgumentException("Name is required");
+        }
+        if (request.getSlug() == null || request.getSlug().isBlank()) {
+            throw new IllegalArgumentException("Slug is required");
+        }
+        if (request.getPrice() == null || request.getPrice().compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Price must not be negative");
+        }
+        if (request.getStatus() != null
+                && !ALLOWED_STATUSES.contains(request.getStatus().trim().toUpperCase(Locale.ROOT))) {
+            throw new IllegalArgumentException("Status must be one of " + ALLOWED_STATUSES);
+        }
+        if (request.getVariants() != null) {
+            for (ProductRequest.VariantRequest variant : request.getVariants()) {
+                if (variant.getSku() == null || variant.getSku().isBlank()) {
+                    throw new IllegalArgumentException("SKU is required");
+                }
+                if (variant.getStock() != null && variant.getStock() < 0) {
+                    throw new IllegalArgumentException("Stock must not be negative");
+                }
+                if (variant.getPrice() != null && variant.getPrice().compareTo(BigDecimal.ZERO) < 0) {
+                    throw new IllegalArgumentException("Price must not be negative");
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.kun.backend.service;
 
 import lombok.RequiredArgsConstructor;
+import org.kun.backend.component.UserDetailsCache;
 import org.kun.backend.model.User;
 import org.kun.backend.repository.UserRepository;
 import org.springframework.security.core.GrantedAuthority;
@@ -18,18 +19,27 @@ import java.util.Collections;
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return userDetailsCache.get(username, this::loadFromDatabase);
+    }
+
+    private UserDetailsCache.CachedUser loadFromDatabase(String username) {
         // Tìm user bằng username hoặc email
         User user = userRepository.findByUsernameOrEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username or email: " + username));
 
-        return org.springframework.security.core.userdetails.User.builder()
+        UserDetails details = org.springframework.security.core.userdetails.User.builder()
                 .username(user.getUsername())
                 .password(user.getPassword())
                 .authorities(getAuthorities(user))
+                .disabled(!user.isEnabled())
+                .accountLocked(!user.isAccountNonLocked())
                 .build();
+
+        return new UserDetailsCache.CachedUser(user.getId(), user.getUsername(), user.getEmail(), details);
     }
 
     private Collection<? extends GrantedAuthority> getAuthorities(User user) {
@@ -39,4 +49,3 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         return Collections.emptyList();
     }
 }
-
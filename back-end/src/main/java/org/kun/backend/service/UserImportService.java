@@ -0,0 +1,439 @@
+package org.kun.backend.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.kun.backend.dto.request.BulkUserRow;
+import org.kun.backend.dto.response.BulkImportResult;
+import org.kun.backend.exception.ServiceUnavailableException;
+import org.kun.backend.model.Role;
+import org.kun.backend.model.User;
+import org.kun.backend.repository.RoleRepository;
+import org.kun.backend.repository.UserRepository;
+import org.kun.backend.security.BoundedPasswordEncoder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Import user hàng loạt từ NDJSON hoặc CSV (có header).
+ * File được đọc theo từng chunk: chỉ một chunk nằm trong memory, password của chunk
+ * được hash song song trên pool riêng (không dùng pool hash của login), sau đó insert
+ * bằng JDBC batch trong một transaction. Lỗi được ghi theo số dòng, không dừng cả file.
+ */
+@Service
+@Slf4j
+public class UserImportService implements DisposableBean {
+
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final String FORMAT_CSV = "csv";
+
+    private final UserRepository userRepo;
+    private final RoleRepository roleRepository;
+    private final PasswordEncoder hashEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader rowReader;
+    private final ExecutorService hashingExecutor;
+    // Chỉ một import chạy tại một thời điểm để giới hạn CPU dành cho hash
+    private final Semaphore importPermit = new Semaphore(1);
+    private final Counter importedCounter;
+    private final Counter failedCounter;
+
+    @Value("${bulk-import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${bulk-import.max-errors:1000}")
+    private int maxErrors;
+
+    // Số ký tự tối đa của một dòng: dòng dài hơn bị từ chối, không đọc cả dòng vào memory
+    @Value("${bulk-import.max-line-length:8192}")
+    private int maxLineLength;
+
+    public UserImportService(
+            UserRepository userRepo,
+            RoleRepository roleRepository,
+            PasswordEncoder passwordEncoder,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${bulk-import.hashing-threads:0}") int hashingThreads) {
+        this.userRepo = userRepo;
+        this.roleRepository = roleRepository;
+        this.hashEncoder = passwordEncoder instanceof BoundedPasswordEncoder bounded
+                ? bounded.getDelegate() : passwordEncoder;
+        this.transactionTemplate = transactionTemplate;
+        this.rowReader = objectMapper.readerFor(BulkUserRow.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        // Mặc định dùng một nửa số core, nửa còn lại cho request thường (login vẫn hash được)
+        int threads = hashingThreads > 0 ? hashingThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.hashingExecutor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "bulk-import-hash-" + threadIndex.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        new ExecutorServiceMetrics(hashingExecutor, "bulkImportHashing", List.of()).bindTo(meterRegistry);
+
+        this.importedCounter = Counter.builder("users.import.rows")
+                .tag("result", "imported")
+                .description("Rows imported by the bulk user import")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("users.import.rows")
+                .tag("result", "failed")
+                .description("Rows rejected by the bulk user import")
+                .register(meterRegistry);
+    }
+
+    public BulkImportResult importUsers(InputStream input, String format) {
+        if (!importPermit.tryAcquire()) {
+            throw new ServiceUnavailableException("Another user import is in progress, please try again later");
+        }
+        try {
+            return doImport(input, format);
+        } finally {
+            importPermit.release();
+        }
+    }
+
+    private BulkImportResult doImport(InputStream input, String format) {
+        long start = System.currentTimeMillis();
+        BulkImportResult result = BulkImportResult.builder().build();
+        Map<String, Role> roles = loadRoles();
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            BoundedLineReader lines = new BoundedLineReader(reader, maxLineLength);
+            Map<String, Integer> csvColumns = null;
+            long lineNumber = 0;
+
+            while (lines.next()) {
+                lineNumber++;
+                if (lines.isOversized()) {
+                    if (FORMAT_CSV.equals(format) && csvColumns == null) {
+                        throw new IllegalArgumentException("CSV header exceeds " + maxLineLength + " characters");
+                    }
+                    result.setProcessed(result.getProcessed() + 1);
+                    addError(result, lineNumber, null, "Row exceeds " + maxLineLength + " characters");
+                    continue;
+                }
+                String line = lines.line();
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (FORMAT_CSV.equals(format) && csvColumns == null) {
+                    csvColumns = parseCsvHeader(line);
+                    continue;
+                }
+
+                result.setProcessed(result.getProcessed() + 1);
+                BulkUserRow row;
+                try {
+                    row = FORMAT_CSV.equals(format) ? parseCsvRow(line, csvColumns) : rowReader.readValue(line);
+                } catch (IOException | IllegalArgumentException e) {
+                    addError(result, lineNumber, null, "Malformed row: " + e.getMessage());
+                    continue;
+                }
+
+                String error = validate(row, roles);
+                if (error != null) {
+                    addError(result, lineNumber, row.getUsername(), error);
+                    continue;
+                }
+
+                chunk.add(new PendingRow(lineNumber, row));
+                if (chunk.size() >= chunkSize) {
+                    flush(chunk, roles, result);
+                }
+            }
+            flush(chunk, roles, result);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read import stream", e);
+        }
+
+        result.setDurationMs(System.currentTimeMillis() - start);
+        log.info("User import finished: {} processed, {} imported, {} failed in {} ms",
+                result.getProcessed(), result.getImported(), result.getFailed(), result.getDurationMs());
+        return result;
+    }
+
+    // Hash song song + insert một chunk, sau đó xóa chunk khỏi memory
+    private void flush(List<PendingRow> chunk, Map<String, Role> roles, BulkImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        // Bỏ qua (không hash) các user đã tồn tại: một query cho cả chunk
+        Set<String> existing = userRepo.findExistingIdentifiers(
+                chunk.stream().map(p -> p.row().getUsername()).toList(),
+                chunk.stream().map(p -> p.row().getEmail()).toList());
+        List<PendingRow> fresh = new ArrayList<>(chunk.size());
+        for (PendingRow pending : chunk) {
+            if (existing.contains(pending.row().getUsername()) || existing.contains(pending.row().getEmail())) {
+                addError(result, pending.line(), pending.row().getUsername(), "Username or email already exists");
+            } else {
+                fresh.add(pending);
+            }
+        }
+
+        List<String> hashes = hashAll(fresh);
+        List<User> users = new ArrayList<>(fresh.size());
+        for (int i = 0; i < fresh.size(); i++) {
+            users.add(toUser(fresh.get(i).row(), hashes.get(i), roles));
+        }
+
+        int[] counts = users.isEmpty() ? new int[0] : transactionTemplate.execute(status -> userRepo.batchInsert(users));
+        long imported = 0;
+        for (int i = 0; i < counts.length; i++) {
+            // Trùng do request khác insert giữa lúc kiểm tra và lúc insert (ON CONFLICT DO NOTHING)
+            if (counts[i] == 0) {
+                addError(result, fresh.get(i).line(), fresh.get(i).row().getUsername(), "Username or email already exists");
+            } else if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                imported++;
+            }
+        }
+        result.setImported(result.getImported() + imported);
+        importedCounter.increment(imported);
+
+        log.info("User import progress: {} processed, {} imported, {} failed",
+                result.getProcessed(), result.getImported(), result.getFailed());
+        chunk.clear();
+    }
+
+    private List<String> hashAll(List<PendingRow> rows) {
+        List<Callable<String>> tasks = new ArrayList<>(rows.size());
+        for (PendingRow pending : rows) {
+            String rawPassword = pending.row().getPassword();
+            tasks.add(() -> hashEncoder.encode(rawPassword));
+        }
+
+        List<String> hashes = new ArrayList<>(rows.size());
+        try {
+            for (Future<String> future : hashingExecutor.invokeAll(tasks)) {
+                hashes.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("User import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+        return hashes;
+    }
+
+    private User toUser(BulkUserRow row, String passwordHash, Map<String, Role> roles) {
+        return User.builder()
+                .username(row.getUsername())
+                .email(row.getEmail())
+                .password(passwordHash)
+                .fullName(row.getFullName())
+                .phone(row.getPhone())
+                .address(row.getAddress())
+                .role(roles.get(row.getRole()))
+                .status(row.getStatus())
+                .build();
+    }
+
+    // Chuẩn hóa role/status về chữ hoa và kiểm tra theo cùng ràng buộc với RegisterRequest
+    private String validate(BulkUserRow row, Map<String, Role> roles) {
+        row.setUsername(trimToNull(row.getUsername()));
+        row.setEmail(trimToNull(row.getEmail()));
+        row.setRole(row.getRole() == null || row.getRole().isBlank() ? "USER" : row.getRole().trim().toUpperCase(Locale.ROOT));
+        row.setStatus(row.getStatus() == null || row.getStatus().isBlank() ? "ACTIVE" : row.getStatus().trim().toUpperCase(Locale.ROOT));
+
+        if (row.getUsername() == null || row.getUsername().length() < 3 || row.getUsername().length() > 100) {
+            return "Username must be between 3 and 100 characters";
+        }
+        if (row.getEmail() == null || row.getEmail().length() > 150 || !row.getEmail().contains("@")) {
+            return "Email should be valid";
+        }
+        if (row.getPassword() == null || row.getPassword().length() < 6) {
+            return "Password must be at least 6 characters";
+        }
+        if (!roles.containsKey(row.getRole())) {
+            return "Unknown role: " + row.getRole();
+        }
+        if (!User.STATUSES.contains(row.getStatus())) {
+            return "Unknown status: " + row.getStatus();
+        }
+        return null;
+    }
+
+    private void addError(BulkImportResult result, long line, String username, String message) {
+        result.setFailed(result.getFailed() + 1);
+        failedCounter.increment();
+        if (result.getErrors().size() < maxErrors) {
+            result.getErrors().add(new BulkImportResult.RowError(line, username, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private Map<String, Role> loadRoles() {
+        Map<String, Role> roles = new HashMap<>();
+        for (Role role : roleRepository.findAll()) {
+            roles.put(role.getName().toUpperCase(Locale.ROOT), role);
+        }
+        return roles;
+    }
+
+    private static Map<String, Integer> parseCsvHeader(String line) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsvLine(line);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+        if (!columns.containsKey("username") || !columns.containsKey("email") || !columns.containsKey("password")) {
+            throw new IllegalArgumentException("CSV header must contain username, email and password columns");
+        }
+        return columns;
+    }
+
+    private static BulkUserRow parseCsvRow(String line, Map<String, Integer> columns) {
+        List<String> values = splitCsvLine(line);
+        return BulkUserRow.builder()
+                .username(column(values, columns, "username"))
+                .email(column(values, columns, "email"))
+                .password(column(values, columns, "password"))
+                .fullName(column(values, columns, "fullName"))
+                .phone(column(values, columns, "phone"))
+                .address(column(values, columns, "address"))
+                .role(column(values, columns, "role"))
+                .status(column(values, columns, "status"))
+                .build();
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    // CSV theo RFC 4180 trên một dòng: field có thể đặt trong "...", "" là dấu nháy kép
+    static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static String trimToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private record PendingRow(long line, BulkUserRow row) {
+    }
+
+    /**
+     * Đọc từng dòng như BufferedReader.readLine nhưng giữ tối đa maxLength ký tự:
+     * phần còn lại của dòng quá dài được bỏ qua đến '\n' và dòng được đánh dấu oversized.
+     */
+    static final class BoundedLineReader {
+        private final Reader reader;
+        private final int maxLength;
+        private final StringBuilder buffer = new StringBuilder();
+        private boolean oversized;
+
+        BoundedLineReader(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        // Trả về false khi hết stream
+        boolean next() throws IOException {
+            buffer.setLength(0);
+            oversized = false;
+            int c = reader.read();
+            if (c == -1) {
+                return false;
+            }
+            while (c != -1 && c != '\n') {
+                if (!oversized) {
+                    // '\r' của "\r\n" không tính vào giới hạn
+                    if (buffer.length() < maxLength || (c == '\r' && buffer.length() == maxLength)) {
+                        buffer.append((char) c);
+                    } else {
+                        oversized = true;
+                        buffer.setLength(0);
+                    }
+                }
+                c = reader.read();
+            }
+            int length = buffer.length();
+            if (length > 0 && buffer.charAt(length - 1) == '\r') {
+                buffer.setLength(length - 1);
+            }
+            return true;
+        }
+
+        boolean isOversized() {
+            return oversized;
+        }
+
+        String line() {
+            return buffer.toString();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        hashingExecutor.shutdown();
+    }
+}
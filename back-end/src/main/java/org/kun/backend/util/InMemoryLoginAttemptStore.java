@@ -0,0 +1,89 @@
+package org.kun.backend.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.kun.backend.util.LoginAttemptTracker.ATTEMPT_WINDOW_MS;
+import static org.kun.backend.util.LoginAttemptTracker.LOCK_TIME_MS;
+import static org.kun.backend.util.LoginAttemptTracker.MAX_FAILED_ATTEMPTS;
+
+/**
+ * Lưu login attempts trong memory của node hiện tại (mặc định).
+ * <p>
+ * Thread-safe: mỗi key được cập nhật atomic qua ConcurrentMap.compute (lock theo bucket, không lock toàn map).
+ * Số key bị giới hạn cứng và entry tự hết hạn, nên memory không tăng vô hạn khi bị credential stuffing.
+ */
+@Component
+@ConditionalOnProperty(name = "login-attempt.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryLoginAttemptStore implements LoginAttemptStore {
+
+    // Giới hạn cứng số key được theo dõi
+    private static final long MAX_TRACKED_KEYS = 100_000;
+
+    private final Cache<String, SlidingWindow> attempts = Caffeine.newBuilder()
+            .maximumSize(MAX_TRACKED_KEYS)
+            .expireAfterWrite(Math.max(LOCK_TIME_MS, ATTEMPT_WINDOW_MS), TimeUnit.MILLISECONDS)
+            .build();
+
+    @Override
+    public AttemptState recordFailure(String key, long now) {
+        SlidingWindow window = attempts.asMap().compute(key,
+                (k, current) -> (current == null ? SlidingWindow.EMPTY : current).recordFailure(now));
+        return new AttemptState(window.failures.length, window.lockedUntil);
+    }
+
+    @Override
+    public boolean isLocked(String key, long now) {
+        SlidingWindow window = attempts.getIfPresent(key);
+        return window != null && window.lockedUntil > now;
+    }
+
+    @Override
+    public void reset(String key) {
+        attempts.invalidate(key);
+    }
+
+    /**
+     * Trạng thái immutable của một key: timestamp (epoch ms) các lần thất bại trong window
+     * và thời điểm hết khóa. Mỗi lần cập nhật tạo object mới trong compute.
+     */
+    private static final class SlidingWindow {
+        static final SlidingWindow EMPTY = new SlidingWindow(new long[0], 0L);
+
+        private final long[] failures;
+        private final long lockedUntil;
+
+        private SlidingWindow(long[] failures, long lockedUntil) {
+            this.failures = failures;
+            this.lockedUntil = lockedUntil;
+        }
+
+        SlidingWindow recordFailure(long now) {
+            // Đang bị khóa: không tính thêm
+            if (lockedUntil > now) {
+                return this;
+            }
+
+            // Bỏ các lần thất bại đã trượt ra khỏi window
+            long windowStart = now - ATTEMPT_WINDOW_MS;
+            long[] next = new long[failures.length + 1];
+            int count = 0;
+            for (long failure : failures) {
+                if (failure > windowStart) {
+                    next[count++] = failure;
+                }
+            }
+            next[count++] = now;
+
+            if (count >= MAX_FAILED_ATTEMPTS) {
+                return new SlidingWindow(new long[0], now + LOCK_TIME_MS);
+            }
+            return new SlidingWindow(Arrays.copyOf(next, count), 0L);
+        }
+    }
+}
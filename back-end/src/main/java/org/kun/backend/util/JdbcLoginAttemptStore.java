@@ -0,0 +1,143 @@
+package org.kun.backend.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static org.kun.backend.util.LoginAttemptTracker.ATTEMPT_WINDOW_MS;
+import static org.kun.backend.util.LoginAttemptTracker.LOCK_TIME_MS;
+import static org.kun.backend.util.LoginAttemptTracker.MAX_FAILED_ATTEMPTS;
+
+/**
+ * Lưu login attempts trong bảng login_attempts của Postgres để mọi node dùng chung trạng thái khóa.
+ * <p>
+ * Mỗi lần thất bại là một câu INSERT ... ON CONFLICT DO UPDATE (atomic, chỉ lock đúng một row).
+ * Window được tính từ lần thất bại đầu tiên (fixed window). Nếu DB lỗi, tạm dùng store in-memory
+ * của node hiện tại để việc chống brute force không bị tắt.
+ */
+@Component
+@ConditionalOnProperty(name = "login-attempt.store", havingValue = "jdbc")
+@Slf4j
+public class JdbcLoginAttemptStore implements LoginAttemptStore {
+
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private static final String UPSERT_FAILURE = """
+            INSERT INTO login_attempts (attempt_key, attempts, window_start, locked_until)
+            VALUES (:key, 1, :now, CASE WHEN 1 >= :maxAttempts THEN :lockUntil ELSE 0 END)
+            ON CONFLICT (attempt_key) DO UPDATE SET
+                attempts = CASE WHEN login_attempts.window_start <= :windowStart OR login_attempts.locked_until > 0
+                                THEN 1 ELSE login_attempts.attempts + 1 END,
+                window_start = CASE WHEN login_attempts.window_start <= :windowStart OR login_attempts.locked_until > 0
+                                THEN :now ELSE login_attempts.window_start END,
+                locked_until = CASE WHEN login_attempts.window_start > :windowStart AND login_attempts.locked_until = 0
+                                     AND login_attempts.attempts + 1 >= :maxAttempts
+                                THEN :lockUntil ELSE 0 END
+            WHERE login_attempts.locked_until <= :now
+            RETURNING attempts, locked_until
+            """;
+
+    private static final String SELECT_LOCKED_UNTIL = """
+            SELECT locked_until FROM login_attempts WHERE attempt_key = :key
+            """;
+
+    private static final String DELETE_KEY = """
+            DELETE FROM login_attempts WHERE attempt_key = :key
+            """;
+
+    private static final String PURGE_BATCH = """
+            DELETE FROM login_attempts WHERE attempt_key IN (
+                SELECT attempt_key FROM login_attempts
+                WHERE window_start <= :windowStart AND locked_until <= :now
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED
+            )
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final InMemoryLoginAttemptStore fallback = new InMemoryLoginAttemptStore();
+
+    public JdbcLoginAttemptStore(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public AttemptState recordFailure(String key, long now) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("key", key)
+                .addValue("now", now)
+                .addValue("windowStart", now - ATTEMPT_WINDOW_MS)
+                .addValue("lockUntil", now + LOCK_TIME_MS)
+                .addValue("maxAttempts", MAX_FAILED_ATTEMPTS);
+        try {
+            List<AttemptState> rows = jdbc.query(UPSERT_FAILURE, params,
+                    (rs, i) -> new AttemptState(rs.getInt("attempts"), rs.getLong("locked_until")));
+            if (!rows.isEmpty()) {
+                return rows.get(0);
+            }
+            // Không có row trả về nghĩa là key đang bị khóa
+            return new AttemptState(MAX_FAILED_ATTEMPTS, lockedUntil(key));
+        } catch (DataAccessException e) {
+            log.warn("Login attempt store unavailable, using local fallback: {}", e.getMessage());
+            return fallback.recordFailure(key, now);
+        }
+    }
+
+    @Override
+    public boolean isLocked(String key, long now) {
+        try {
+            return lockedUntil(key) > now;
+        } catch (DataAccessException e) {
+            log.warn("Login attempt store unavailable, using local fallback: {}", e.getMessage());
+            return fallback.isLocked(key, now);
+        }
+    }
+
+    @Override
+    public void reset(String key) {
+        fallback.reset(key);
+        try {
+            jdbc.update(DELETE_KEY, new MapSqlParameterSource("key", key));
+        } catch (DataAccessException e) {
+            log.warn("Login attempt store unavailable, cannot reset {}: {}", key, e.getMessage());
+        }
+    }
+
+    private long lockedUntil(String key) {
+        List<Long> rows = jdbc.queryForList(SELECT_LOCKED_UNTIL, new MapSqlParameterSource("key", key), Long.class);
+        return rows.isEmpty() ? 0L : rows.get(0);
+    }
+
+    /**
+     * Xóa các row đã hết window và hết khóa theo từng batch.
+     * SKIP LOCKED cho phép nhiều node chạy cùng lúc mà không chờ nhau.
+     */
+    @Scheduled(fixedDelayString = "${login-attempt.purge-interval:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("windowStart", now - ATTEMPT_WINDOW_MS)
+                .addValue("now", now)
+                .addValue("batchSize", PURGE_BATCH_SIZE);
+        try {
+            int total = 0;
+            int deleted;
+            do {
+                deleted = jdbc.update(PURGE_BATCH, params);
+                total += deleted;
+            } while (deleted == PURGE_BATCH_SIZE);
+
+            if (total > 0) {
+                log.debug("Purged {} expired login attempt rows", total);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Cannot purge login attempts: {}", e.getMessage());
+        }
+    }
+}
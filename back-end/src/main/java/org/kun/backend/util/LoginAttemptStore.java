@@ -0,0 +1,34 @@
+package org.kun.backend.util;
+
+/**
+ * Nơi lưu trạng thái đăng nhập thất bại cho LoginAttemptTracker.
+ * Có bản in-memory (một node) và bản dùng chung qua Postgres (nhiều node sau load balancer),
+ * chọn bằng property login-attempt.store.
+ */
+public interface LoginAttemptStore {
+
+    /**
+     * Ghi nhận một lần thất bại một cách atomic và trả về trạng thái sau khi cập nhật.
+     * Nếu key đang bị khóa thì không tính thêm.
+     */
+    AttemptState recordFailure(String key, long now);
+
+    /**
+     * Kiểm tra key có đang bị khóa tại thời điểm now không
+     */
+    boolean isLocked(String key, long now);
+
+    /**
+     * Xóa trạng thái của key (sau khi đăng nhập thành công)
+     */
+    void reset(String key);
+
+    /**
+     * Trạng thái của một key sau khi ghi nhận thất bại
+     */
+    record AttemptState(int attempts, long lockedUntil) {
+        public boolean isLocked(long now) {
+            return lockedUntil > now;
+        }
+    }
+}
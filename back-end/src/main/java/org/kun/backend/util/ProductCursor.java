@@ -0,0 +1,46 @@
+package org.kun.backend.util;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * Cursor keyset cho listing product: vị trí (price, id) của dòng cuối trang trước.
+ * Được encode base64url để client chỉ gửi lại nguyên văn, không tự dựng.
+ */
+public record ProductCursor(BigDecimal price, long id) {
+
+    public enum Sort {
+        NEWEST, PRICE_ASC, PRICE_DESC;
+
+        public static Sort parse(String value) {
+            if (value == null || value.isBlank()) {
+                return NEWEST;
+            }
+            try {
+                return Sort.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("sort must be one of newest, price_asc, price_desc");
+            }
+        }
+    }
+
+    public String encode() {
+        String raw = price.toPlainString() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new ProductCursor(new BigDecimal(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
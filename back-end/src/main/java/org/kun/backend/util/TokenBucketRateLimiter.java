@@ -0,0 +1,65 @@
+package org.kun.backend.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket theo key (IP, subnet, ...), lock-free và giới hạn memory.
+ * <p>
+ * Mỗi bucket chỉ là một AtomicLong lưu "theoretical arrival time" (GCRA - tương đương token bucket):
+ * mỗi request đẩy mốc này thêm một khoảng refill, request bị từ chối nếu mốc vượt quá capacity khoảng.
+ * Cập nhật bằng CAS, không lock. Số bucket bị giới hạn và bucket không dùng sẽ tự hết hạn.
+ */
+public class TokenBucketRateLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final Cache<String, AtomicLong> buckets;
+
+    /**
+     * @param capacity         số request tối đa dồn liền một lúc
+     * @param refillPerMinute  số token được nạp lại mỗi phút
+     * @param maxTrackedKeys   số bucket tối đa giữ trong memory
+     */
+    public TokenBucketRateLimiter(long capacity, long refillPerMinute, long maxTrackedKeys) {
+        if (capacity <= 0 || refillPerMinute <= 0) {
+            throw new IllegalArgumentException("Rate limit capacity and refill rate must be positive");
+        }
+        this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / refillPerMinute;
+        this.burstToleranceNanos = emissionIntervalNanos * capacity;
+        // Bucket không được dùng trong thời gian nạp đầy lại thì tương đương bucket mới
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(burstToleranceNanos, TimeUnit.NANOSECONDS)
+                .build();
+    }
+
+    /**
+     * Lấy một token cho key, trả về false nếu bucket đã hết
+     */
+    public boolean tryAcquire(String key) {
+        AtomicLong tat = buckets.get(key, k -> new AtomicLong(0L));
+        long now = System.nanoTime();
+
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + emissionIntervalNanos;
+            if (next - now > burstToleranceNanos) {
+                return false;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Số giây tối thiểu client nên chờ trước khi thử lại
+     */
+    public long retryAfterSeconds() {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(emissionIntervalNanos));
+    }
+}
@@ -0,0 +1,24 @@
+package org.kun.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 của token dạng compact, dùng làm key lookup thay cho token gốc
+ * (refresh token trong DB, cache token đã verify).
+ */
+public final class TokenDigest {
+
+    private TokenDigest() {
+    }
+
+    public static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
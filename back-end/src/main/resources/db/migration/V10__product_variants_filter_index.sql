@@ -0,0 +1,12 @@
+-- ============================================================================
+-- Flyway V10: variant size/color filter without the in-stock condition
+-- ============================================================================
+-- The listing only adds stock > 0 when inStock=true, so size/color filters
+-- alone can match out-of-stock variants. idx_product_variants_in_stock (V7,
+-- partial on stock > 0) cannot serve that probe; this index covers it.
+-- Note: built CONCURRENTLY so product_variants stays writable, which needs
+--       executeInTransaction=false (V10__product_variants_filter_index.sql.conf).
+-- ============================================================================
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_variants_product_size_color
+    ON product_variants(product_id, size, color);
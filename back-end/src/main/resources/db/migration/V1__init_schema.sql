@@ -0,0 +1,72 @@
+-- ============================================================================
+-- Flyway V1: initial schema for all entities in org.kun.backend.model
+-- ============================================================================
+-- Fresh databases are created from this script.
+-- Existing databases created by hibernate ddl-auto: apply
+-- sql/migrations/002..005 first, then Flyway baselines them at version 1
+-- (spring.flyway.baseline-on-migrate) and only runs later versions.
+-- ============================================================================
+
+-- Roles
+CREATE TABLE IF NOT EXISTS roles (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(50) NOT NULL,
+    CONSTRAINT uk_roles_name UNIQUE (name)
+);
+
+-- Users
+CREATE TABLE IF NOT EXISTS users (
+    id BIGSERIAL PRIMARY KEY,
+    username VARCHAR(100) NOT NULL,
+    email VARCHAR(150) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    full_name VARCHAR(150),
+    phone VARCHAR(20),
+    address VARCHAR(255),
+    role_id BIGINT,
+    status VARCHAR(20),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT fk_users_role
+        FOREIGN KEY (role_id)
+        REFERENCES roles(id)
+);
+
+-- Refresh tokens (token stored as SHA-256 digest)
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id BIGSERIAL PRIMARY KEY,
+    token_hash BYTEA NOT NULL,
+    revoked BOOLEAN NOT NULL DEFAULT FALSE,
+    expired BOOLEAN NOT NULL DEFAULT FALSE,
+    user_id BIGINT,
+    created_at TIMESTAMP(6),
+    expires_at TIMESTAMP(6),
+    CONSTRAINT uk_refresh_tokens_token_hash UNIQUE (token_hash),
+    CONSTRAINT chk_refresh_tokens_token_hash_length CHECK (octet_length(token_hash) = 32),
+    CONSTRAINT fk_refresh_tokens_user
+        FOREIGN KEY (user_id)
+        REFERENCES users(id)
+        ON DELETE CASCADE
+);
+
+-- Active tokens per user (findAllValidTokenByUser, revokeAllByUserId, revokeOldestBeyond)
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user_active_created
+    ON refresh_tokens(user_id, created_at)
+    WHERE revoked = FALSE AND expired = FALSE;
+
+-- Shared failed-login counters (login-attempt.store=jdbc)
+CREATE TABLE IF NOT EXISTS login_attempts (
+    attempt_key VARCHAR(150) PRIMARY KEY,
+    attempts INT NOT NULL,
+    window_start BIGINT NOT NULL,
+    locked_until BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX IF NOT EXISTS idx_login_attempts_window_start
+    ON login_attempts(window_start);
+
+-- Default roles
+INSERT INTO roles (name) VALUES ('ADMIN'), ('USER'), ('MANAGER')
+ON CONFLICT (name) DO NOTHING;
@@ -0,0 +1,74 @@
+-- ============================================================================
+-- Flyway V2: weekly range partitioning of refresh_tokens on created_at
+-- ============================================================================
+-- Retention is done by dropping whole partitions older than
+-- jwt.expiration.refresh (RefreshTokenPartitionManager), instead of mass
+-- DELETEs that bloat the table. Postgres requires the partition key in every
+-- unique constraint, so the primary key becomes (id, created_at) and the
+-- token digest is unique per (token_hash, created_at).
+-- Only rows still inside the 7-day refresh lifetime are carried over.
+-- ============================================================================
+
+-- 1. Move the current table aside (free up names used below)
+ALTER TABLE refresh_tokens RENAME TO refresh_tokens_legacy;
+ALTER INDEX IF EXISTS idx_refresh_tokens_user_active_created
+    RENAME TO idx_refresh_tokens_legacy_user_active_created;
+
+CREATE SEQUENCE refresh_tokens_part_id_seq;
+SELECT setval('refresh_tokens_part_id_seq',
+              COALESCE((SELECT MAX(id) FROM refresh_tokens_legacy), 0) + 1, false);
+
+-- 2. Partitioned parent
+CREATE TABLE refresh_tokens (
+    id BIGINT NOT NULL DEFAULT nextval('refresh_tokens_part_id_seq'),
+    token_hash BYTEA NOT NULL,
+    revoked BOOLEAN NOT NULL DEFAULT FALSE,
+    expired BOOLEAN NOT NULL DEFAULT FALSE,
+    user_id BIGINT,
+    created_at TIMESTAMP(6) NOT NULL,
+    expires_at TIMESTAMP(6),
+    CONSTRAINT pk_refresh_tokens PRIMARY KEY (id, created_at),
+    CONSTRAINT uk_refresh_tokens_token_hash_created UNIQUE (token_hash, created_at),
+    CONSTRAINT chk_refresh_tokens_token_hash_length CHECK (octet_length(token_hash) = 32),
+    CONSTRAINT fk_refresh_tokens_user
+        FOREIGN KEY (user_id)
+        REFERENCES users(id)
+        ON DELETE CASCADE
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE refresh_tokens_part_id_seq OWNED BY refresh_tokens.id;
+
+-- Active tokens per user (created on every partition)
+CREATE INDEX idx_refresh_tokens_user_active_created
+    ON refresh_tokens(user_id, created_at)
+    WHERE revoked = FALSE AND expired = FALSE;
+
+-- 3. Safety net for rows outside the pre-created weeks, then weekly partitions
+--    from last week up to four weeks ahead (ISO weeks, starting Monday)
+CREATE TABLE refresh_tokens_default PARTITION OF refresh_tokens DEFAULT;
+
+DO $$
+DECLARE
+    week_start DATE;
+BEGIN
+    FOR week_start IN
+        SELECT generate_series(date_trunc('week', now() - INTERVAL '7 days'),
+                               date_trunc('week', now()) + INTERVAL '4 weeks',
+                               INTERVAL '1 week')::date
+    LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF refresh_tokens FOR VALUES FROM (%L) TO (%L)',
+                       'refresh_tokens_p' || to_char(week_start, 'YYYYMMDD'),
+                       week_start, week_start + 7);
+    END LOOP;
+END $$;
+
+-- 4. Carry over tokens that can still be used, then drop the old table
+INSERT INTO refresh_tokens (id, token_hash, revoked, expired, user_id, created_at, expires_at)
+SELECT id, token_hash, revoked, expired, user_id, created_at, expires_at
+FROM refresh_tokens_legacy
+WHERE created_at >= now() - INTERVAL '7 days';
+
+DROP TABLE refresh_tokens_legacy;
+
+COMMENT ON TABLE refresh_tokens IS
+    'Refresh tokens, range-partitioned weekly on created_at; old partitions are dropped for retention';
@@ -0,0 +1,17 @@
+-- ============================================================================
+-- Flyway V3: refresh token families for reuse detection
+-- ============================================================================
+-- Every token rotated from the same login shares token_family. Replaying a
+-- rotated (revoked) token revokes the whole family with one indexed UPDATE.
+-- ============================================================================
+
+ALTER TABLE refresh_tokens ADD COLUMN token_family UUID;
+
+-- Existing tokens each start their own family
+UPDATE refresh_tokens SET token_family = gen_random_uuid() WHERE token_family IS NULL;
+
+ALTER TABLE refresh_tokens ALTER COLUMN token_family SET NOT NULL;
+
+CREATE INDEX idx_refresh_tokens_family_active
+    ON refresh_tokens(token_family, created_at)
+    WHERE revoked = FALSE;
@@ -0,0 +1,9 @@
+-- ============================================================================
+-- Flyway V4: rotation timestamp for concurrent refresh handling
+-- ============================================================================
+-- rotated_at is set only when a token is revoked by rotation. A revoked token
+-- presented again within jwt.refresh.rotation.grace-period of rotated_at is a
+-- parallel request from the same browser, not a replay.
+-- ============================================================================
+
+ALTER TABLE refresh_tokens ADD COLUMN rotated_at TIMESTAMP(6);
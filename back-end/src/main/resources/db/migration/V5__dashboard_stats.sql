@@ -0,0 +1,92 @@
+-- ============================================================================
+-- Flyway V5: incrementally maintained admin dashboard counters
+-- ============================================================================
+-- dashboard_stats holds a single row (id = 1). Statement-level triggers on
+-- users apply the delta of each INSERT/UPDATE/DELETE statement, so bulk
+-- writes touch the row once per statement and the dashboard reads one row
+-- regardless of table size. DashboardStatsReconcileJob recounts periodically
+-- and corrects drift.
+-- total_orders/total_revenue are maintained by the order write path once the
+-- orders table exists; until then they stay at 0.
+-- ============================================================================
+
+CREATE TABLE dashboard_stats (
+    id SMALLINT PRIMARY KEY,
+    total_users BIGINT NOT NULL DEFAULT 0,
+    active_users BIGINT NOT NULL DEFAULT 0,
+    total_orders BIGINT NOT NULL DEFAULT 0,
+    total_revenue NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP(6) NOT NULL DEFAULT now(),
+    CONSTRAINT chk_dashboard_stats_single_row CHECK (id = 1)
+);
+
+INSERT INTO dashboard_stats (id, total_users, active_users, updated_at)
+SELECT 1, count(*), count(*) FILTER (WHERE status = 'ACTIVE'), now()
+FROM users;
+
+CREATE OR REPLACE FUNCTION dashboard_stats_users_inserted() RETURNS TRIGGER AS $$
+DECLARE
+    added BIGINT;
+    added_active BIGINT;
+BEGIN
+    SELECT count(*), count(*) FILTER (WHERE status = 'ACTIVE') INTO added, added_active FROM new_rows;
+    IF added > 0 THEN
+        UPDATE dashboard_stats
+        SET total_users = total_users + added,
+            active_users = active_users + added_active,
+            updated_at = now()
+        WHERE id = 1;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION dashboard_stats_users_deleted() RETURNS TRIGGER AS $$
+DECLARE
+    removed BIGINT;
+    removed_active BIGINT;
+BEGIN
+    SELECT count(*), count(*) FILTER (WHERE status = 'ACTIVE') INTO removed, removed_active FROM old_rows;
+    IF removed > 0 THEN
+        UPDATE dashboard_stats
+        SET total_users = total_users - removed,
+            active_users = active_users - removed_active,
+            updated_at = now()
+        WHERE id = 1;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Only status changes affect the counters; other updates skip the stats row
+CREATE OR REPLACE FUNCTION dashboard_stats_users_updated() RETURNS TRIGGER AS $$
+DECLARE
+    active_delta BIGINT;
+BEGIN
+    SELECT (SELECT count(*) FROM new_rows WHERE status = 'ACTIVE')
+         - (SELECT count(*) FROM old_rows WHERE status = 'ACTIVE')
+    INTO active_delta;
+    IF active_delta <> 0 THEN
+        UPDATE dashboard_stats
+        SET active_users = active_users + active_delta,
+            updated_at = now()
+        WHERE id = 1;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_users_dashboard_stats_insert
+    AFTER INSERT ON users
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION dashboard_stats_users_inserted();
+
+CREATE TRIGGER trg_users_dashboard_stats_delete
+    AFTER DELETE ON users
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION dashboard_stats_users_deleted();
+
+CREATE TRIGGER trg_users_dashboard_stats_update
+    AFTER UPDATE ON users
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION dashboard_stats_users_updated();
@@ -0,0 +1,17 @@
+-- ============================================================================
+-- Flyway V6: indexes for keyset-paginated admin user listing
+-- ============================================================================
+-- /api/admin/users seeks on id (id > :cursor ORDER BY id LIMIT n), optionally
+-- filtered by status, role_id or email prefix. Each filter gets an index that
+-- keeps the seek an index range scan, so deep pages cost the same as page one.
+-- Note: CREATE INDEX CONCURRENTLY does not block writes to users but cannot
+--       run inside a transaction block, so this script runs with
+--       executeInTransaction=false (V6__users_admin_listing_indexes.sql.conf).
+-- ============================================================================
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_status_id ON users(status, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_role_id_id ON users(role_id, id);
+
+-- Prefix search: lower(email) LIKE 'abc%'
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_lower_prefix ON users(lower(email) text_pattern_ops);
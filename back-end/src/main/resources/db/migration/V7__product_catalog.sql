@@ -0,0 +1,83 @@
+-- ============================================================================
+-- Flyway V7: product catalog (categories, products, product_variants)
+-- ============================================================================
+-- Public listing (/api/public/products) only reads ACTIVE products and pages
+-- with keyset predicates, so every sort order has a matching partial index:
+--   newest      -> (category_id, id DESC) / (id DESC)
+--   price asc/desc -> (category_id, price, id) / (price, id)
+-- Variant filters (size/color/in stock) are EXISTS probes on product_id.
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS categories (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(150) NOT NULL,
+    slug VARCHAR(150) NOT NULL,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uk_categories_slug UNIQUE (slug)
+);
+
+CREATE TABLE IF NOT EXISTS products (
+    id BIGSERIAL PRIMARY KEY,
+    category_id BIGINT NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    slug VARCHAR(255) NOT NULL,
+    description TEXT,
+    price NUMERIC(12, 2) NOT NULL,
+    image_url VARCHAR(500),
+    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE',
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uk_products_slug UNIQUE (slug),
+    CONSTRAINT chk_products_price CHECK (price >= 0),
+    CONSTRAINT fk_products_category
+        FOREIGN KEY (category_id)
+        REFERENCES categories(id)
+);
+
+CREATE TABLE IF NOT EXISTS product_variants (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    sku VARCHAR(64) NOT NULL,
+    size VARCHAR(20),
+    color VARCHAR(50),
+    price NUMERIC(12, 2) NOT NULL,
+    stock INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uk_product_variants_sku UNIQUE (sku),
+    CONSTRAINT chk_product_variants_price CHECK (price >= 0),
+    CONSTRAINT chk_product_variants_stock CHECK (stock >= 0),
+    CONSTRAINT fk_product_variants_product
+        FOREIGN KEY (product_id)
+        REFERENCES products(id)
+        ON DELETE CASCADE
+);
+
+-- Category page, newest first
+CREATE INDEX IF NOT EXISTS idx_products_category_id_active
+    ON products(category_id, id DESC)
+    WHERE status = 'ACTIVE';
+
+-- Category page sorted by price
+CREATE INDEX IF NOT EXISTS idx_products_category_price_active
+    ON products(category_id, price, id)
+    WHERE status = 'ACTIVE';
+
+-- All products, newest first / by price
+CREATE INDEX IF NOT EXISTS idx_products_id_active
+    ON products(id DESC)
+    WHERE status = 'ACTIVE';
+
+CREATE INDEX IF NOT EXISTS idx_products_price_active
+    ON products(price, id)
+    WHERE status = 'ACTIVE';
+
+-- Product detail: all variants of a product
+CREATE INDEX IF NOT EXISTS idx_product_variants_product_id
+    ON product_variants(product_id, id);
+
+-- Listing filters: in-stock variant of a given size/color
+CREATE INDEX IF NOT EXISTS idx_product_variants_in_stock
+    ON product_variants(product_id, size, color)
+    WHERE stock > 0;
@@ -0,0 +1,21 @@
+-- ============================================================================
+-- Flyway V8: shared access-token revocation list
+-- ============================================================================
+-- Access tokens issued to user_id before revoked_before are rejected. Every
+-- node writes here on logout/lock/revoke-all and polls the table
+-- (jwt.revocation.poll-interval), so a revoke on one node applies to all
+-- nodes in stateless mode. Rows older than the access token lifetime are
+-- purged.
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS access_token_revocations (
+    user_id BIGINT PRIMARY KEY,
+    revoked_before TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_access_token_revocations_user
+        FOREIGN KEY (user_id)
+        REFERENCES users(id)
+        ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_access_token_revocations_revoked_before
+    ON access_token_revocations(revoked_before);
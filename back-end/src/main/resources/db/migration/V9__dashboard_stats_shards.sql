@@ -0,0 +1,77 @@
+-- ============================================================================
+-- Flyway V9: shard dashboard counters across rows
+-- ============================================================================
+-- V5 kept a single dashboard_stats row, so every transaction writing users
+-- (login status changes, admin updates, each bulk import batch) took a row
+-- lock on it and was serialized behind the others until commit.
+-- The counters are now split into 16 shard rows (id 1..16). Each trigger
+-- applies its delta to the shard picked from the backend pid, so concurrent
+-- connections update different rows; one connection always hits the same row,
+-- which keeps lock ordering trivial. Readers sum all shards
+-- (DashboardStatsRepository.sumShards). Individual shard values may go
+-- negative (e.g. a user inserted on one shard and deleted on another); only
+-- the sum is meaningful.
+-- ============================================================================
+
+ALTER TABLE dashboard_stats DROP CONSTRAINT chk_dashboard_stats_single_row;
+ALTER TABLE dashboard_stats ADD CONSTRAINT chk_dashboard_stats_shard CHECK (id BETWEEN 1 AND 16);
+
+-- Existing totals stay on shard 1, the new shards start at 0
+INSERT INTO dashboard_stats (id, updated_at)
+SELECT shard, now()
+FROM generate_series(2, 16) AS shard;
+
+CREATE OR REPLACE FUNCTION dashboard_stats_shard() RETURNS SMALLINT AS $$
+    SELECT (1 + pg_backend_pid() % 16)::SMALLINT;
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION dashboard_stats_users_inserted() RETURNS TRIGGER AS $$
+DECLARE
+    added BIGINT;
+    added_active BIGINT;
+BEGIN
+    SELECT count(*), count(*) FILTER (WHERE status = 'ACTIVE') INTO added, added_active FROM new_rows;
+    IF added > 0 THEN
+        UPDATE dashboard_stats
+        SET total_users = total_users + added,
+            active_users = active_users + added_active,
+            updated_at = now()
+        WHERE id = dashboard_stats_shard();
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION dashboard_stats_users_deleted() RETURNS TRIGGER AS $$
+DECLARE
+    removed BIGINT;
+    removed_active BIGINT;
+BEGIN
+    SELECT count(*), count(*) FILTER (WHERE status = 'ACTIVE') INTO removed, removed_active FROM old_rows;
+    IF removed > 0 THEN
+        UPDATE dashboard_stats
+        SET total_users = total_users - removed,
+            active_users = active_users - removed_active,
+            updated_at = now()
+        WHERE id = dashboard_stats_shard();
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION dashboard_stats_users_updated() RETURNS TRIGGER AS $$
+DECLARE
+    active_delta BIGINT;
+BEGIN
+    SELECT (SELECT count(*) FROM new_rows WHERE status = 'ACTIVE')
+         - (SELECT count(*) FROM old_rows WHERE status = 'ACTIVE')
+    INTO active_delta;
+    IF active_delta <> 0 THEN
+        UPDATE dashboard_stats
+        SET active_users = active_users + active_delta,
+            updated_at = now()
+        WHERE id = dashboard_stats_shard();
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
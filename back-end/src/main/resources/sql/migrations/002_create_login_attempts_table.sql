@@ -0,0 +1,24 @@
+-- ============================================================================
+-- Migration: Create login_attempts table
+-- Version: 002
+-- Description: Shared failed-login counters for LoginAttemptTracker
+--              (used when login-attempt.store=jdbc)
+-- ============================================================================
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS login_attempts (
+    attempt_key VARCHAR(150) PRIMARY KEY, -- lower-cased username or email
+    attempts INT NOT NULL,
+    window_start BIGINT NOT NULL,         -- epoch millis of first failure in window
+    locked_until BIGINT NOT NULL DEFAULT 0 -- epoch millis, 0 = not locked
+);
+
+-- Index for batched purge job
+CREATE INDEX IF NOT EXISTS idx_login_attempts_window_start
+    ON login_attempts(window_start);
+
+COMMENT ON TABLE login_attempts IS
+    'Failed login counters shared by all back-end nodes for brute-force lockout';
+
+COMMIT;
@@ -0,0 +1,33 @@
+-- ============================================================================
+-- Migration: Store refresh tokens as SHA-256 digests
+-- Version: 003
+-- Description: Replaces the unique varchar "token" column with a fixed-width
+--              32-byte "token_hash" column. Existing rows are backfilled with
+--              sha256(token) so sessions issued before the upgrade keep working.
+--              Run before deploying the version that reads token_hash.
+-- ============================================================================
+
+BEGIN;
+
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS token_hash BYTEA;
+
+-- Backfill from the plaintext token (sha256() is built in since PostgreSQL 11)
+UPDATE refresh_tokens
+SET token_hash = sha256(convert_to(token, 'UTF8'))
+WHERE token_hash IS NULL AND token IS NOT NULL;
+
+ALTER TABLE refresh_tokens ALTER COLUMN token_hash SET NOT NULL;
+
+ALTER TABLE refresh_tokens
+    ADD CONSTRAINT chk_refresh_tokens_token_hash_length CHECK (octet_length(token_hash) = 32);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_refresh_tokens_token_hash
+    ON refresh_tokens(token_hash);
+
+-- Drop the plaintext token column and its unique index
+ALTER TABLE refresh_tokens DROP COLUMN IF EXISTS token;
+
+COMMENT ON COLUMN refresh_tokens.token_hash IS
+    'SHA-256 digest of the refresh token - the plaintext token is never stored';
+
+COMMIT;
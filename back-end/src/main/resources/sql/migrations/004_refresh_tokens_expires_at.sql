@@ -0,0 +1,20 @@
+-- ============================================================================
+-- Migration: Store refresh token expiry in a column
+-- Version: 004
+-- Description: Adds expires_at so the refresh path (and opaque refresh tokens)
+--              no longer need to parse a JWT to know when a token expires.
+-- ============================================================================
+
+BEGIN;
+
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS expires_at TIMESTAMP;
+
+-- Backfill existing rows with created_at + jwt.expiration.refresh (7 days)
+UPDATE refresh_tokens
+SET expires_at = created_at + INTERVAL '7 days'
+WHERE expires_at IS NULL AND created_at IS NOT NULL;
+
+COMMENT ON COLUMN refresh_tokens.expires_at IS
+    'Timestamp when the refresh token expires - authoritative for both jwt and opaque formats';
+
+COMMIT;
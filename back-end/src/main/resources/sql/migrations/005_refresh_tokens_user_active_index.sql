@@ -0,0 +1,22 @@
+-- ============================================================================
+-- Migration: Partial index for active refresh tokens per user
+-- Version: 005
+-- Description: Serves findAllValidTokenByUser, revokeAllByUserId and
+--              revokeOldestBeyond (filter by user_id, revoked = false,
+--              expired = false, ordered by created_at) without scanning the
+--              user's revoked history or the whole table.
+-- Note: CREATE INDEX CONCURRENTLY cannot run inside a transaction block,
+--       so this script intentionally has no BEGIN/COMMIT.
+-- ============================================================================
+
+-- Replace a non-partial index of the same name created by hibernate ddl-auto, if any
+DROP INDEX CONCURRENTLY IF EXISTS idx_refresh_tokens_user_active_created;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_refresh_tokens_user_active_created
+    ON refresh_tokens(user_id, created_at)
+    WHERE revoked = FALSE AND expired = FALSE;
+
+-- Superseded by the index above
+DROP INDEX CONCURRENTLY IF EXISTS idx_refresh_tokens_user_active;
+
+ANALYZE refresh_tokens;
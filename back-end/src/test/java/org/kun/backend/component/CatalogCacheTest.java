@@ -0,0 +1,97 @@
+package org.kun.backend.component;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.kun.backend.support.Concurrently;
+import org.kun.backend.util.ProductCursor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogCacheTest {
+
+    private static final int THREADS = 16;
+
+    private final CatalogCache cache = new CatalogCache(new SimpleMeterRegistry(), true, 1000,
+            Duration.ofMinutes(5), Duration.ofMinutes(30), Duration.ofMinutes(1), Duration.ofSeconds(30), 0.1);
+
+    @Test
+    void concurrentRequestsForColdKeyLoadOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+
+        List<Future<String>> results = Concurrently.run(THREADS, () -> cache.getListingFirstPage("shoes",
+                ProductCursor.Sort.NEWEST, () -> {
+                    loads.incrementAndGet();
+                    sleep(200);
+                    return "page";
+                }));
+
+        for (Future<String> result : results) {
+            assertEquals("page", result.get());
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void evictionWaitsForInFlightLoadSoStalePageIsNotKept() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Trang đang được load từ dữ liệu trước khi write commit
+        Thread reader = new Thread(() -> cache.getListingFirstPage("shoes", ProductCursor.Sort.PRICE_ASC, () -> {
+            loading.countDown();
+            await(release);
+            return "stale";
+        }));
+        reader.start();
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // Write commit (không có transaction nên evict chạy ngay)
+        Thread writer = new Thread(() -> cache.evictProduct(List.of("runner"), List.of("shoes")));
+        writer.start();
+        writer.join(200);
+        assertTrue(writer.isAlive(), "eviction should wait for the in-flight load");
+
+        release.countDown();
+        reader.join(5000);
+        writer.join(5000);
+
+        assertEquals("fresh", cache.getListingFirstPage("shoes", ProductCursor.Sort.PRICE_ASC, () -> "fresh"));
+    }
+
+    @Test
+    void evictionCoversEverySortOfAllProductsListing() {
+        for (ProductCursor.Sort sort : ProductCursor.Sort.values()) {
+            cache.getListingFirstPage(null, sort, () -> "old");
+        }
+
+        cache.evictProduct(List.of("runner"), List.of("shoes"));
+
+        for (ProductCursor.Sort sort : ProductCursor.Sort.values()) {
+            assertEquals("new", cache.getListingFirstPage(null, sort, () -> "new"));
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.kun.backend.component;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class TokenRevocationRegistryTest {
+
+    private final TokenRevocationRegistry registry = new TokenRevocationRegistry(mock(JdbcTemplate.class));
+
+    @Test
+    void tokenIssuedBeforeRevokeSecondIsRevoked() {
+        registry.revokeUser(1L);
+        long revokeSecond = System.currentTimeMillis() / 1000 * 1000;
+
+        assertTrue(registry.isRevoked(token(1L, revokeSecond - 5000)));
+    }
+
+    @Test
+    void tokenIssuedInRevokeSecondIsNotRevoked() {
+        registry.revokeUser(1L);
+        // iat của JWT bị làm tròn xuống giây: token login lại ngay sau revoke có iat = giây của revoke
+        long revokeSecond = System.currentTimeMillis() / 1000 * 1000;
+
+        assertFalse(registry.isRevoked(token(1L, revokeSecond)));
+    }
+
+    @Test
+    void otherUsersAreNotAffected() {
+        registry.revokeUser(1L);
+
+        assertFalse(registry.isRevoked(token(2L, 0)));
+    }
+
+    private static VerifiedToken token(Long userId, long issuedAtMs) {
+        return new VerifiedToken("user" + userId, userId, new Date(issuedAtMs),
+                new Date(issuedAtMs + 900_000), "USER", "ACTIVE");
+    }
+}
@@ -0,0 +1,35 @@
+package org.kun.backend.configuration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DataSourcePoolConfigurationTest {
+
+    @Test
+    void explicitSizeWins() {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("db-pool.size", "25")
+                .withProperty("db-pool.cpu-cores", "8");
+
+        assertEquals(25, DataSourcePoolConfiguration.resolvePoolSize(env));
+    }
+
+    @Test
+    void derivedFromCoresAndThreadCounts() {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("db-pool.size", "0")
+                .withProperty("db-pool.cpu-cores", "8")
+                .withProperty("server.tomcat.threads.max", "200");
+
+        // 8 core: 8 * 2 + 1, thread hash mặc định = số core
+        assertEquals(17, DataSourcePoolConfiguration.resolvePoolSize(env));
+    }
+
+    @Test
+    void neverBelowHashingThreadsNorAboveTomcatThreads() {
+        assertEquals(24, DataSourcePoolConfiguration.derivePoolSize(4, 200, 24));
+        assertEquals(10, DataSourcePoolConfiguration.derivePoolSize(16, 10, 4));
+    }
+}
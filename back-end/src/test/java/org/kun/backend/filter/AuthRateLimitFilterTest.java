@@ -0,0 +1,45 @@
+package org.kun.backend.filter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthRateLimitFilterTest {
+
+    @Test
+    void ipv4AddressesInSameSlash24ShareSubnetKey() {
+        assertEquals("203.0.113.0/24", AuthRateLimitFilter.subnetOf("203.0.113.7"));
+        assertEquals(AuthRateLimitFilter.subnetOf("203.0.113.7"), AuthRateLimitFilter.subnetOf("203.0.113.250"));
+        assertNotEquals(AuthRateLimitFilter.subnetOf("203.0.113.7"), AuthRateLimitFilter.subnetOf("203.0.114.7"));
+    }
+
+    @Test
+    void compressedAndExpandedIpv6FormsShareSlash64Key() {
+        String expanded = AuthRateLimitFilter.subnetOf("2001:db8:0:0:1:2:3:4");
+        assertEquals("2001:db8:0:0::/64", expanded);
+        assertEquals(expanded, AuthRateLimitFilter.subnetOf("2001:db8::5"));
+        assertEquals(expanded, AuthRateLimitFilter.subnetOf("2001:DB8:0::ffff"));
+        assertEquals(expanded, AuthRateLimitFilter.subnetOf("2001:0db8:0000:0000:abcd::1%eth0"));
+        assertNotEquals(expanded, AuthRateLimitFilter.subnetOf("2001:db8:0:1::5"));
+    }
+
+    @Test
+    void nonLiteralInputIsNotResolved() {
+        assertEquals("localhost", AuthRateLimitFilter.subnetOf("localhost"));
+        assertEquals("", AuthRateLimitFilter.subnetOf(null));
+    }
+
+    @Test
+    void hexOnlyHostnamesAreNotTreatedAsIpLiterals() {
+        for (String hostname : new String[] {"cafe.face", "dead.beef", "abc", "1.2.3", "1.2.3.4.5", "256.1.1.1", "01.2.3.4"}) {
+            assertFalse(AuthRateLimitFilter.isIpLiteral(hostname), hostname);
+            assertEquals(hostname, AuthRateLimitFilter.subnetOf(hostname));
+        }
+        assertTrue(AuthRateLimitFilter.isIpLiteral("203.0.113.7"));
+        assertTrue(AuthRateLimitFilter.isIpLiteral("2001:db8::5"));
+        assertTrue(AuthRateLimitFilter.isIpLiteral("::ffff:203.0.113.7"));
+    }
+}
@@ -0,0 +1,49 @@
+package org.kun.backend.repository;
+
+import org.junit.jupiter.api.Test;
+import org.kun.backend.dto.request.ProductFilter;
+import org.kun.backend.dto.response.ProductSummaryResponse;
+import org.kun.backend.support.PostgresIntegrationTest;
+import org.kun.backend.util.ProductCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lọc listing theo size/color của variant: inStock quyết định có yêu cầu variant còn hàng hay không
+ */
+class ProductListingFilterTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ProductRepository productRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void sizeFilterMatchesOutOfStockVariantsUnlessInStockIsRequested() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        String size = "S" + suffix.substring(0, 6);
+        Long categoryId = jdbcTemplate.queryForObject(
+                "insert into categories (name, slug) values (?, ?) returning id", Long.class, "Cat " + suffix, "cat-" + suffix);
+        Long productId = jdbcTemplate.queryForObject(
+                "insert into products (category_id, name, slug, price) values (?, ?, ?, 10) returning id",
+                Long.class, categoryId, "Shoe " + suffix, "shoe-" + suffix);
+        jdbcTemplate.update("insert into product_variants (product_id, sku, size, color, price, stock) "
+                + "values (?, ?, ?, 'red', 10, 0)", productId, "sku-" + suffix, size);
+
+        List<ProductSummaryResponse> any = productRepo.findPublicPage(
+                ProductFilter.builder().size(size).build(), ProductCursor.Sort.NEWEST, null, 10);
+        List<ProductSummaryResponse> inStock = productRepo.findPublicPage(
+                ProductFilter.builder().size(size).inStock(true).build(), ProductCursor.Sort.NEWEST, null, 10);
+
+        assertEquals(1, any.size());
+        assertEquals(productId, any.get(0).getId());
+        assertTrue(inStock.isEmpty());
+    }
+}
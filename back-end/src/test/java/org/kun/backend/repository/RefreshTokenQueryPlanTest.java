@@ -0,0 +1,92 @@
+package org.kun.backend.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.kun.backend.support.EmbeddedPostgresSupport;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Các query nóng trên refresh_tokens phải dùng index trên mọi partition (schema sau V2+).
+ * enable_seqscan = off: planner chỉ chọn Seq Scan khi không có index nào dùng được,
+ * nên test không phụ thuộc kích thước dữ liệu.
+ */
+class RefreshTokenQueryPlanTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String LIVE_WINDOW = "now() - interval '7 days'";
+
+    private static DataSource dataSource;
+
+    @BeforeAll
+    static void startDatabase() {
+        dataSource = EmbeddedPostgresSupport.dataSource();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            // findAllValidTokenByUser
+            "select t.* from refresh_tokens t join users u on u.id = t.user_id "
+                    + "where u.id = 42 and t.revoked = false and t.expired = false",
+            // revokeAllByUserId
+            "update refresh_tokens set revoked = true where user_id = 42 and revoked = false and expired = false "
+                    + "and created_at > " + LIVE_WINDOW,
+            // revokeOldestBeyond
+            "update refresh_tokens set revoked = true where created_at > " + LIVE_WINDOW + " and id in ("
+                    + "select id from refresh_tokens where user_id = 42 and revoked = false and expired = false "
+                    + "and created_at > " + LIVE_WINDOW + " order by created_at desc, id desc offset 4)",
+            // findWithUserByTokenHash
+            "select t.* from refresh_tokens t join users u on u.id = t.user_id "
+                    + "where t.token_hash = decode(repeat('ab', 32), 'hex') and t.created_at > " + LIVE_WINDOW,
+            // revokeIfActive
+            "update refresh_tokens set revoked = true, rotated_at = now() "
+                    + "where id = 7 and created_at = now() - interval '1 day' and revoked = false",
+            // revokeFamily
+            "update refresh_tokens set revoked = true where token_family = '00000000-0000-0000-0000-000000000001' "
+                    + "and revoked = false and created_at > " + LIVE_WINDOW
+    })
+    void hotQueryDoesNotSeqScan(String sql) throws Exception {
+        List<String> nodeTypes = planNodeTypes(sql);
+
+        assertFalse(nodeTypes.contains("Seq Scan"), () -> "Seq Scan in plan " + nodeTypes + " for: " + sql);
+        assertTrue(nodeTypes.stream().anyMatch(type -> type.contains("Index")), () -> "No index in plan " + nodeTypes);
+    }
+
+    private static List<String> planNodeTypes(String sql) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("set local enable_seqscan = off");
+                try (ResultSet rs = statement.executeQuery("explain (format json) " + sql)) {
+                    rs.next();
+                    List<String> types = new ArrayList<>();
+                    collectNodeTypes(MAPPER.readTree(rs.getString(1)).get(0).get("Plan"), types);
+                    return types;
+                }
+            } finally {
+                connection.rollback();
+            }
+        }
+    }
+
+    private static void collectNodeTypes(JsonNode plan, List<String> types) {
+        types.add(plan.get("Node Type").asText());
+        JsonNode children = plan.get("Plans");
+        if (children != null) {
+            for (JsonNode child : children) {
+                collectNodeTypes(child, types);
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.kun.backend.security;
+
+import org.junit.jupiter.api.Test;
+import org.kun.backend.dto.request.RegisterRequest;
+import org.kun.backend.service.AuthService;
+import org.kun.backend.support.Concurrently;
+import org.kun.backend.support.PostgresIntegrationTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Khi pool hash (BoundedPasswordEncoder) đầy: login bị từ chối ngay bằng 503 + Retry-After,
+ * còn endpoint không hash (profile) vẫn trả lời nhanh
+ */
+class PasswordHashingOverloadTest extends PostgresIntegrationTest {
+
+    private static final int PROFILE_REQUESTS = 50;
+    private static final long PROFILE_P99_LIMIT_MS = 1000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AuthService authService;
+
+    @Test
+    void saturatedHashingPoolShedsLoginsButNotOtherEndpoints() throws Exception {
+        String name = "busy-" + UUID.randomUUID().toString().substring(0, 8);
+        String accessToken = authService.register(new RegisterRequest(name, name + "@example.com",
+                "secret-password", null, null, null)).getAccessToken();
+
+        String login = "{\"usernameOrEmail\":\"" + name + "\",\"password\":\"secret-password\"}";
+
+        ThreadPoolExecutor executor = ((BoundedPasswordEncoder) passwordEncoder).getExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // Chiếm hết thread hash và chỗ trong hàng đợi
+            int slots = executor.getMaximumPoolSize() + executor.getQueue().remainingCapacity();
+            for (int i = 0; i < slots; i++) {
+                executor.execute(() -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+
+            mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(login))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"));
+
+            List<Future<Long>> profiles = Concurrently.run(PROFILE_REQUESTS, () -> {
+                long start = System.nanoTime();
+                mockMvc.perform(get("/api/user/profile").header("Authorization", "Bearer " + accessToken))
+                        .andExpect(status().isOk());
+                return (System.nanoTime() - start) / 1_000_000;
+            });
+            List<Long> latencies = new ArrayList<>();
+            for (Future<Long> profile : profiles) {
+                latencies.add(profile.get());
+            }
+            long p99 = percentile(latencies, 0.99);
+            assertTrue(p99 < PROFILE_P99_LIMIT_MS, "profile p99 = " + p99 + " ms while hashing is saturated");
+        } finally {
+            release.countDown();
+        }
+
+        // Hết quá tải thì login lại bình thường
+        mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(login))
+                .andExpect(status().isOk());
+    }
+
+    private static long percentile(List<Long> values, double percentile) {
+        long[] sorted = values.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+}
@@ -0,0 +1,106 @@
+package org.kun.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.kun.backend.component.JwtTokenUtils;
+import org.kun.backend.component.RefreshGraceCache;
+import org.kun.backend.component.TokenRevocationRegistry;
+import org.kun.backend.component.UserDetailsCache;
+import org.kun.backend.exception.InvalidCredentialsException;
+import org.kun.backend.model.User;
+import org.kun.backend.repository.RefreshTokenRepository;
+import org.kun.backend.repository.RoleRepository;
+import org.kun.backend.repository.UserRepository;
+import org.kun.backend.util.LoginAttemptTracker;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthServiceLoginTest {
+
+    private static final String EXISTING = "alice";
+    private static final String UNKNOWN = "nobody";
+
+    private final UserRepository userRepo = mock(UserRepository.class);
+    private final LoginAttemptTracker loginAttemptTracker = mock(LoginAttemptTracker.class);
+
+    @Test
+    void unknownUserStillVerifiesAgainstDummyHash() {
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.encode(anyString())).thenReturn("dummy-hash");
+        AuthService service = newService(encoder, "stored-hash");
+
+        assertThrows(InvalidCredentialsException.class, () -> service.login(UNKNOWN, "secret"));
+
+        verify(encoder, times(1)).matches("secret", "dummy-hash");
+        verify(loginAttemptTracker).recordFailedAttempt(UNKNOWN);
+    }
+
+    @Test
+    void unknownUserAndWrongPasswordFailIdentically() {
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.encode(anyString())).thenReturn("dummy-hash");
+        AuthService service = newService(encoder, "stored-hash");
+
+        InvalidCredentialsException unknown =
+                assertThrows(InvalidCredentialsException.class, () -> service.login(UNKNOWN, "secret"));
+        InvalidCredentialsException wrongPassword =
+                assertThrows(InvalidCredentialsException.class, () -> service.login(EXISTING, "secret"));
+
+        assertEquals(unknown.getMessage(), wrongPassword.getMessage());
+        verify(encoder).matches("secret", "stored-hash");
+    }
+
+    @Test
+    void unknownUserTakesAboutAsLongAsWrongPassword() {
+        // BCrypt thật: dummy hash được encode cùng cost nên hai nhánh tốn cùng một lần hash
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(8);
+        AuthService service = newService(encoder, encoder.encode("correct-password"));
+
+        long unknown = medianNanos(() -> service.login(UNKNOWN, "secret"));
+        long wrongPassword = medianNanos(() -> service.login(EXISTING, "secret"));
+
+        double ratio = (double) unknown / wrongPassword;
+        assertTrue(ratio > 0.5 && ratio < 2.0,
+                "unknown=" + unknown + "ns, wrongPassword=" + wrongPassword + "ns");
+    }
+
+    private AuthService newService(PasswordEncoder encoder, String storedHash) {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername(EXISTING);
+        user.setPassword(storedHash);
+        user.setStatus("ACTIVE");
+        when(userRepo.findByUsernameOrEmail(EXISTING)).thenReturn(Optional.of(user));
+        when(userRepo.findByUsernameOrEmail(UNKNOWN)).thenReturn(Optional.empty());
+
+        AuthService service = new AuthService(userRepo, mock(RefreshTokenRepository.class),
+                mock(JwtTokenUtils.class), encoder, mock(RoleRepository.class), loginAttemptTracker,
+                mock(TokenRevocationRegistry.class), mock(UserDetailsCache.class),
+                mock(RefreshGraceCache.class), mock(TransactionTemplate.class));
+        service.initDummyHash();
+        return service;
+    }
+
+    private static long medianNanos(Runnable failingLogin) {
+        long[] samples = new long[15];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            assertThrows(InvalidCredentialsException.class, failingLogin::run);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+}
@@ -0,0 +1,49 @@
+package org.kun.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedLineReaderTest {
+
+    @Test
+    void oversizedLineIsRejectedAndReaderResumesAtNextLine() throws IOException {
+        UserImportService.BoundedLineReader reader = new UserImportService.BoundedLineReader(
+                new StringReader("short\n" + "x".repeat(20) + "\nnext\n"), 10);
+
+        assertTrue(reader.next());
+        assertEquals("short", reader.line());
+        assertFalse(reader.isOversized());
+
+        assertTrue(reader.next());
+        assertTrue(reader.isOversized());
+
+        assertTrue(reader.next());
+        assertFalse(reader.isOversized());
+        assertEquals("next", reader.line());
+
+        assertFalse(reader.next());
+    }
+
+    @Test
+    void lineAtLimitWithCrLfIsAccepted() throws IOException {
+        UserImportService.BoundedLineReader reader = new UserImportService.BoundedLineReader(
+                new StringReader("0123456789\r\n01234567890\r\nlast"), 10);
+
+        assertTrue(reader.next());
+        assertFalse(reader.isOversized());
+        assertEquals("0123456789", reader.line());
+
+        assertTrue(reader.next());
+        assertTrue(reader.isOversized());
+
+        assertTrue(reader.next());
+        assertEquals("last", reader.line());
+        assertFalse(reader.next());
+    }
+}
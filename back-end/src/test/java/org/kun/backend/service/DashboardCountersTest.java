@@ -0,0 +1,87 @@
+package org.kun.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.kun.backend.dto.request.RegisterRequest;
+import org.kun.backend.repository.DashboardStatsRepository;
+import org.kun.backend.support.Concurrently;
+import org.kun.backend.support.PostgresIntegrationTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bộ đếm dashboard (trigger V5/V9, shard theo backend pid) phải khớp với số đếm lại toàn bảng users
+ */
+class DashboardCountersTest extends PostgresIntegrationTest {
+
+    private static final int WRITERS = 4;
+
+    @Autowired
+    private DashboardStatsRepository statsRepo;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void incrementalCountersMatchFullRecountAfterConcurrentWrites() throws Exception {
+        // Mỗi thread ghi qua connection riêng trong pool, nên trigger cộng vào các shard khác nhau
+        List<Future<Object>> writers = Concurrently.run(WRITERS, () -> {
+            String prefix = "dash-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+            authService.register(new RegisterRequest(prefix + "reg", prefix + "reg@example.com",
+                    "secret-password", null, null, null));
+            // Insert nhiều dòng trong một statement (như bulk import)
+            jdbcTemplate.update("""
+                    insert into users (username, email, password, status, created_at)
+                    select ? || g, ? || g || '@example.com', 'x',
+                           case when g % 2 = 0 then 'ACTIVE' else 'INACTIVE' end, now()
+                    from generate_series(1, 10) g
+                    """, prefix, prefix);
+            jdbcTemplate.update("update users set status = 'ACTIVE' where username like ? and status = 'INACTIVE'",
+                    prefix + "%");
+            jdbcTemplate.update("update users set status = 'LOCKED' where username in (?, ?, ?)",
+                    prefix + "1", prefix + "2", prefix + "3");
+            jdbcTemplate.update("delete from users where username in (?, ?, ?, ?)",
+                    prefix + "3", prefix + "4", prefix + "5", prefix + "6");
+            return null;
+        });
+        for (Future<Object> writer : writers) {
+            writer.get();
+        }
+
+        assertCountersMatchRecount();
+        assertFalse(dashboardService.reconcileUserCounts());
+    }
+
+    @Test
+    void reconcileFoldsDriftIntoFirstShard() {
+        jdbcTemplate.update("update dashboard_stats set total_users = total_users + 3, active_users = active_users - 1 "
+                + "where id = 5");
+
+        assertTrue(dashboardService.reconcileUserCounts());
+
+        assertCountersMatchRecount();
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from dashboard_stats where id <> 1 and (total_users <> 0 or active_users <> 0)",
+                Long.class));
+    }
+
+    private void assertCountersMatchRecount() {
+        DashboardStatsRepository.Totals totals = statsRepo.sumShards();
+        assertEquals(jdbcTemplate.queryForObject("select count(*) from users", Long.class), totals.getTotalUsers());
+        assertEquals(jdbcTemplate.queryForObject("select count(*) from users where status = 'ACTIVE'", Long.class),
+                totals.getActiveUsers());
+    }
+}
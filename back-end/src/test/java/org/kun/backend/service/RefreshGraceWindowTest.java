@@ -0,0 +1,129 @@
+package org.kun.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.Test;
+import org.kun.backend.component.RefreshGraceCache;
+import org.kun.backend.dto.request.RegisterRequest;
+import org.kun.backend.dto.response.AuthResponse;
+import org.kun.backend.exception.InvalidCredentialsException;
+import org.kun.backend.exception.ServiceUnavailableException;
+import org.kun.backend.support.Concurrently;
+import org.kun.backend.support.PostgresIntegrationTest;
+import org.kun.backend.util.TokenDigest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Grace window khi nhiều request refresh cùng một cookie: trả lại cặp token đã cấp, 503 khi node khác
+ * vừa rotate, revoke cả family khi token cũ bị dùng lại sau window
+ */
+class RefreshGraceWindowTest extends PostgresIntegrationTest {
+
+    private static final int CONCURRENT_REFRESHES = 6;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private RefreshGraceCache refreshGraceCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentRefreshesOfOneCookieGetSamePairAndRevokeNothing() throws Exception {
+        String refresh = register().getRefreshToken();
+        UUID family = familyOf(refresh);
+
+        List<Future<AuthResponse>> results = Concurrently.run(CONCURRENT_REFRESHES, () -> authService.refresh(refresh));
+
+        AuthResponse expected = results.get(0).get();
+        for (Future<AuthResponse> result : results) {
+            assertEquals(expected.getRefreshToken(), result.get().getRefreshToken());
+            assertEquals(expected.getAccessToken(), result.get().getAccessToken());
+        }
+        // Chỉ token cũ bị revoke (do rotate), token mới vẫn dùng được
+        assertEquals(2, countTokens(family, false));
+        assertEquals(1, countTokens(family, true));
+        assertNotNull(authService.refresh(expected.getRefreshToken()).getRefreshToken());
+    }
+
+    @Test
+    void refreshMissingFromThisNodeInsideWindowIsRetriable() {
+        String refresh = register().getRefreshToken();
+        UUID family = familyOf(refresh);
+        authService.refresh(refresh);
+
+        // Request thắng chạy trên node khác: grace cache của node này không có cặp token
+        clearGraceCache();
+
+        assertThrows(ServiceUnavailableException.class, () -> authService.refresh(refresh));
+        assertEquals(1, countTokens(family, true));
+    }
+
+    @Test
+    void replayAfterRotatedAtPlusGraceRevokesFamily() {
+        String refresh = register().getRefreshToken();
+        UUID family = familyOf(refresh);
+        authService.refresh(refresh);
+
+        clearGraceCache();
+        jdbcTemplate.update("update refresh_tokens set rotated_at = rotated_at - make_interval(secs => ?) "
+                + "where token_hash = ?", (GRACE_PERIOD_MS + 1000) / 1000.0, TokenDigest.sha256(refresh));
+
+        assertThrows(InvalidCredentialsException.class, () -> authService.refresh(refresh));
+        assertEquals(0, countTokens(family, true));
+    }
+
+    @Test
+    void graceEntryIsDroppedWhenRotationRollsBack() {
+        byte[] committed = TokenDigest.sha256(UUID.randomUUID().toString());
+        byte[] rolledBack = TokenDigest.sha256(UUID.randomUUID().toString());
+        AuthResponse response = AuthResponse.builder().refreshToken("new").build();
+
+        transactionTemplate.executeWithoutResult(status -> refreshGraceCache.put(committed, response));
+        transactionTemplate.executeWithoutResult(status -> {
+            refreshGraceCache.put(rolledBack, response);
+            status.setRollbackOnly();
+        });
+
+        assertNotNull(refreshGraceCache.get(committed));
+        assertNull(refreshGraceCache.get(rolledBack));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void clearGraceCache() {
+        ((Cache<String, AuthResponse>) ReflectionTestUtils.getField(refreshGraceCache, "issued")).invalidateAll();
+    }
+
+    private AuthResponse register() {
+        String name = "grace-" + UUID.randomUUID().toString().substring(0, 8);
+        return authService.register(new RegisterRequest(name, name + "@example.com", "secret-password",
+                null, null, null));
+    }
+
+    private UUID familyOf(String refreshToken) {
+        return jdbcTemplate.queryForObject("select token_family from refresh_tokens where token_hash = ?",
+                UUID.class, TokenDigest.sha256(refreshToken));
+    }
+
+    private long countTokens(UUID family, boolean activeOnly) {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from refresh_tokens where token_family = ? and (not ? or revoked = false)",
+                Long.class, family, activeOnly);
+    }
+}
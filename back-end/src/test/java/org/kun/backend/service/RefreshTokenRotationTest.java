@@ -0,0 +1,116 @@
+package org.kun.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.kun.backend.dto.request.RegisterRequest;
+import org.kun.backend.dto.response.AuthResponse;
+import org.kun.backend.exception.InvalidCredentialsException;
+import org.kun.backend.repository.RefreshTokenRepository;
+import org.kun.backend.support.Concurrently;
+import org.kun.backend.support.PostgresIntegrationTest;
+import org.kun.backend.util.TokenDigest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Rotate refresh token khi hai request dùng cùng một token chạy song song (Postgres thật, row lock thật)
+ */
+class RefreshTokenRotationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private RefreshTokenRepository refreshRepo;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void revokeIfActiveLetsExactlyOneCallerWin() throws Exception {
+        String refresh = register().getRefreshToken();
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "select id, created_at from refresh_tokens where token_hash = ?", TokenDigest.sha256(refresh));
+        Long id = ((Number) row.get("id")).longValue();
+        Timestamp createdAt = (Timestamp) row.get("created_at");
+
+        List<Future<Integer>> results = Concurrently.run(2, () -> transactionTemplate.execute(
+                status -> refreshRepo.revokeIfActive(id, createdAt, new Date())));
+
+        int winners = 0;
+        for (Future<Integer> result : results) {
+            winners += result.get();
+        }
+        assertEquals(1, winners);
+    }
+
+    @Test
+    void concurrentRefreshWithSameTokenRotatesOnce() throws Exception {
+        String refresh = register().getRefreshToken();
+        UUID family = familyOf(refresh);
+
+        List<Future<AuthResponse>> results = Concurrently.run(2, () -> authService.refresh(refresh));
+
+        // Request thua nhận lại cặp token của request thắng, chỉ một token mới được tạo
+        AuthResponse first = results.get(0).get();
+        AuthResponse second = results.get(1).get();
+        assertEquals(first.getRefreshToken(), second.getRefreshToken());
+        assertNotEquals(refresh, first.getRefreshToken());
+        assertEquals(2, countTokens(family, false));
+        assertEquals(1, countTokens(family, true));
+        assertNotNull(rotatedAt(refresh));
+    }
+
+    @Test
+    void replayOfRotatedTokenRevokesWholeFamily() throws Exception {
+        String refresh = register().getRefreshToken();
+        UUID family = familyOf(refresh);
+        String rotated = authService.refresh(refresh).getRefreshToken();
+
+        Thread.sleep(GRACE_PERIOD_MS + 500);
+
+        assertThrows(InvalidCredentialsException.class, () -> authService.refresh(refresh));
+        assertEquals(0, countTokens(family, true));
+        // Token mới nhất bị revoke bởi revokeFamily (không phải do rotate nên rotated_at vẫn null)
+        assertNull(rotatedAt(rotated));
+        assertThrows(InvalidCredentialsException.class, () -> authService.refresh(rotated));
+    }
+
+    private AuthResponse register() {
+        String name = "rot-" + UUID.randomUUID().toString().substring(0, 8);
+        return authService.register(new RegisterRequest(name, name + "@example.com", "secret-password",
+                null, null, null));
+    }
+
+    private UUID familyOf(String refreshToken) {
+        return jdbcTemplate.queryForObject("select token_family from refresh_tokens where token_hash = ?",
+                UUID.class, TokenDigest.sha256(refreshToken));
+    }
+
+    private Timestamp rotatedAt(String refreshToken) {
+        return jdbcTemplate.queryForObject("select rotated_at from refresh_tokens where token_hash = ?",
+                Timestamp.class, TokenDigest.sha256(refreshToken));
+    }
+
+    private long countTokens(UUID family, boolean activeOnly) {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from refresh_tokens where token_family = ? and (not ? or revoked = false)",
+                Long.class, family, activeOnly);
+    }
+}
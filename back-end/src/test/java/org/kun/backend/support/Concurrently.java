@@ -0,0 +1,44 @@
+package org.kun.backend.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chạy cùng một task trên N thread, tất cả được thả ra cùng lúc qua một CountDownLatch.
+ */
+public final class Concurrently {
+
+    private Concurrently() {
+    }
+
+    /**
+     * Trả về future đã hoàn thành của từng thread (kết quả hoặc exception, theo thứ tự submit)
+     */
+    public static <T> List<Future<T>> run(int threads, Callable<T> task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            executor.shutdown();
+            if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Concurrent tasks did not finish within 60s");
+            }
+            return futures;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.kun.backend.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Một Postgres nhúng cho cả JVM test, schema tạo bằng chính các migration Flyway của ứng dụng
+ * (partition, trigger, index giống production). Dữ liệu dùng chung giữa các test: mỗi test tự tạo
+ * user/token với tên riêng và chỉ kiểm tra dữ liệu của mình.
+ */
+public final class EmbeddedPostgresSupport {
+
+    private static EmbeddedPostgres postgres;
+
+    private EmbeddedPostgresSupport() {
+    }
+
+    public static synchronized DataSource dataSource() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.builder().start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to start embedded Postgres", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                    // JVM đang tắt
+                }
+            }));
+            Flyway.configure()
+                    .dataSource(postgres.getPostgresDatabase())
+                    .locations("classpath:db/migration")
+                    .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                    .load()
+                    .migrate();
+        }
+        return postgres.getPostgresDatabase();
+    }
+
+    public static String jdbcUrl() {
+        dataSource();
+        return postgres.getJdbcUrl("postgres", "postgres");
+    }
+
+    /**
+     * Trỏ datasource của Spring context vào Postgres nhúng (dùng trong @DynamicPropertySource)
+     */
+    public static void registerDataSource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", EmbeddedPostgresSupport::jdbcUrl);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+}
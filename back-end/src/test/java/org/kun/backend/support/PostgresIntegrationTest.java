@@ -0,0 +1,25 @@
+package org.kun.backend.support;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Base cho test chạy toàn bộ Spring context trên Postgres nhúng.
+ * Các class con dùng chung một context (cùng cấu hình), nên không đổi property ở class con.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "jwt.refresh.rotation.grace-period=2s"
+})
+@AutoConfigureMockMvc
+public abstract class PostgresIntegrationTest {
+
+    protected static final long GRACE_PERIOD_MS = 2000;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        EmbeddedPostgresSupport.registerDataSource(registry);
+    }
+}
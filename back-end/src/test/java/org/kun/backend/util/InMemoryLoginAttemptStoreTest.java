@@ -0,0 +1,89 @@
+package org.kun.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.kun.backend.util.LoginAttemptTracker.LOCK_TIME_MS;
+import static org.kun.backend.util.LoginAttemptTracker.MAX_FAILED_ATTEMPTS;
+
+class InMemoryLoginAttemptStoreTest {
+
+    private static final String KEY = "alice@example.com";
+
+    private final InMemoryLoginAttemptStore store = new InMemoryLoginAttemptStore();
+
+    @Test
+    void concurrentFailuresBelowThresholdAreCountedExactly() throws Exception {
+        long now = System.currentTimeMillis();
+        int threads = MAX_FAILED_ATTEMPTS - 1;
+
+        List<LoginAttemptStore.AttemptState> states = recordConcurrently(threads, now);
+
+        // Không mất lần cập nhật nào: mỗi thread thấy một count khác nhau 1..N
+        assertEquals(threads, states.stream().mapToInt(LoginAttemptStore.AttemptState::attempts).max().orElse(0));
+        assertEquals(threads, states.stream().mapToInt(LoginAttemptStore.AttemptState::attempts).distinct().count());
+        assertFalse(store.isLocked(KEY, now));
+    }
+
+    @Test
+    void concurrentFailuresLockExactlyAtThreshold() throws Exception {
+        long now = System.currentTimeMillis();
+        int threads = MAX_FAILED_ATTEMPTS * 8;
+
+        List<LoginAttemptStore.AttemptState> states = recordConcurrently(threads, now);
+
+        long unlocked = states.stream().filter(state -> !state.isLocked(now)).count();
+        assertEquals(MAX_FAILED_ATTEMPTS - 1, unlocked);
+        assertTrue(states.stream().filter(state -> state.isLocked(now))
+                .allMatch(state -> state.lockedUntil() == now + LOCK_TIME_MS));
+        assertTrue(store.isLocked(KEY, now));
+        assertFalse(store.isLocked(KEY, now + LOCK_TIME_MS));
+    }
+
+    @Test
+    void resetClearsLock() {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < MAX_FAILED_ATTEMPTS; i++) {
+            store.recordFailure(KEY, now);
+        }
+        assertTrue(store.isLocked(KEY, now));
+
+        store.reset(KEY);
+
+        assertFalse(store.isLocked(KEY, now));
+        assertEquals(1, store.recordFailure(KEY, now).attempts());
+    }
+
+    private List<LoginAttemptStore.AttemptState> recordConcurrently(int threads, long now) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<LoginAttemptStore.AttemptState>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return store.recordFailure(KEY, now);
+                }));
+            }
+            start.countDown();
+
+            List<LoginAttemptStore.AttemptState> states = new ArrayList<>();
+            for (Future<LoginAttemptStore.AttemptState> future : futures) {
+                states.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return states;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}